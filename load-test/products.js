@@ -0,0 +1,35 @@
+// k6 load test for the read endpoints, run once per thread mode and compare the summaries:
+//   k6 run -e BASE_URL=http://localhost:8080 -e MAX_VUS=10000 load-test/products.js
+import http from 'k6/http';
+import { check } from 'k6';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8080';
+const MAX_VUS = parseInt(__ENV.MAX_VUS || '10000');
+
+export const options = {
+    scenarios: {
+        ramp: {
+            executor: 'ramping-vus',
+            startVUs: 0,
+            stages: [
+                { duration: '30s', target: 1000 },
+                { duration: '1m', target: 1000 },
+                { duration: '30s', target: MAX_VUS },
+                { duration: '1m', target: MAX_VUS },
+                { duration: '15s', target: 0 },
+            ],
+            gracefulRampDown: '10s',
+        },
+    },
+    summaryTrendStats: ['avg', 'p(50)', 'p(95)', 'p(99)', 'max'],
+};
+
+export default function () {
+    const responses = http.batch([
+        ['GET', `${BASE_URL}/api/v1/products/${1 + Math.floor(Math.random() * 3)}`],
+        ['GET', `${BASE_URL}/api/v1/products/paginated?pageNum=0&pageSize=10&sortBy=price`],
+        ['GET', `${BASE_URL}/api/v1/category/search?name=fruit`],
+    ]);
+
+    responses.forEach(response => check(response, { 'status is 200': r => r.status === 200 }));
+}
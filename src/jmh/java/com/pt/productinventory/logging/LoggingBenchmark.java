@@ -0,0 +1,88 @@
+package com.pt.productinventory.logging;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.OutputStreamAppender;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Logging cost of one service call (debug trace plus an info line) per pipeline: the previous synchronous
+ * appender with every debug line written, the async appender, and the async appender with sampled debug.
+ * No pipeline drops events, so the scores compare the same amount of written output.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Threads(4)
+public class LoggingBenchmark {
+
+    private static final String CLASS_NAME = "ProductServiceImpl";
+
+    @Param({"sync", "async", "asyncSampled"})
+    private String pipeline;
+
+    private LoggerContext loggerContext;
+    private Logger logger;
+
+    @Setup
+    public void setUp() {
+        loggerContext = new LoggerContext();
+
+        PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+        encoder.setContext(loggerContext);
+        encoder.setPattern("%d{yyyy-MM-dd'T'HH:mm:ss.SSSXXX} %5p %pid --- [%t] %-40.40logger{39} : %m%n");
+        encoder.start();
+
+        // discards the bytes but keeps the synchronous write path of the console appender
+        OutputStreamAppender<ILoggingEvent> outputAppender = new OutputStreamAppender<>();
+        outputAppender.setContext(loggerContext);
+        outputAppender.setEncoder(encoder);
+        outputAppender.setOutputStream(OutputStream.nullOutputStream());
+        outputAppender.start();
+
+        Appender<ILoggingEvent> appender = outputAppender;
+        if (!"sync".equals(pipeline)) {
+            AsyncAppender asyncAppender = new AsyncAppender();
+            asyncAppender.setContext(loggerContext);
+            asyncAppender.setQueueSize(8192);
+            // the application drops events from a full queue, here every event is written so that dropped
+            // lines can't pass for cheap ones and the writer's pace shows up in the score
+            asyncAppender.setDiscardingThreshold(0);
+            asyncAppender.setNeverBlock(false);
+            asyncAppender.addAppender(outputAppender);
+            asyncAppender.start();
+            appender = asyncAppender;
+        }
+        if ("asyncSampled".equals(pipeline)) {
+            DebugSamplingTurboFilter turboFilter = new DebugSamplingTurboFilter();
+            turboFilter.setLoggerPrefix("com.pt.productinventory");
+            turboFilter.start();
+            loggerContext.addTurboFilter(turboFilter);
+        }
+
+        logger = loggerContext.getLogger("com.pt.productinventory.service.impl.ProductServiceImpl");
+        logger.setLevel(Level.DEBUG);
+        logger.setAdditive(false);
+        logger.addAppender(appender);
+    }
+
+    @TearDown
+    public void tearDown() {
+        loggerContext.stop();
+    }
+
+    @Benchmark
+    public void serviceCall() {
+        logger.debug("calling findAllPageable method in {}", CLASS_NAME);
+        logger.debug("calling createFilterSpecification method in {}", CLASS_NAME);
+        logger.info("Successfully deleted product with id: {}", 42L);
+    }
+}
@@ -0,0 +1,57 @@
+package com.pt.productinventory.mapper;
+
+import com.pt.productinventory.model.Category;
+import com.pt.productinventory.model.Product;
+import com.pt.productinventory.model.dto.CategoryResponseDto;
+import com.pt.productinventory.model.dto.ProductResponseDto;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class MapperBenchmark {
+
+    @Param({"10", "1000", "100000"})
+    private int categorySize;
+
+    private final ProductMapper productMapper = new ProductMapper();
+    private final CategoryMapper categoryMapper = new CategoryMapper(productMapper);
+    private Product product;
+    private Category category;
+
+    @Setup
+    public void setUp() {
+        category = Category.builder()
+                .id(1L)
+                .name("fruit")
+                .build();
+        category.getProducts().addAll(IntStream.range(0, categorySize)
+                                              .mapToObj(this::createProduct)
+                                              .toList());
+        product = category.getProducts().getFirst();
+    }
+
+    @Benchmark
+    public ProductResponseDto toProductResponseDto() {
+        return productMapper.toProductResponseDto(product);
+    }
+
+    @Benchmark
+    public CategoryResponseDto toCategoryResponseDto() {
+        return categoryMapper.toCategoryResponseDto(category);
+    }
+
+    private Product createProduct(int index) {
+        return Product.builder()
+                .id((long) index)
+                .name("Product " + index)
+                .description("Description of product " + index)
+                .price(index * 0.5)
+                .quantity(index)
+                .category(category)
+                .build();
+    }
+}
@@ -0,0 +1,70 @@
+package com.pt.productinventory.mapper;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pt.productinventory.model.Category;
+import com.pt.productinventory.model.Product;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Serializes one page of products as the list endpoints do: the previous DTO mapping with reflective Jackson
+ * serialization, the direct streaming writer on a cache miss, and the cached pre-encoded products.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ProductJsonBenchmark {
+
+    @Param({"20", "1000"})
+    private int pageSize;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ProductMapper productMapper = new ProductMapper();
+    private ProductJsonMapper productJsonMapper;
+    private List<Product> products;
+
+    @Setup
+    public void setUp() {
+        productJsonMapper = new ProductJsonMapper(objectMapper, 100_000);
+
+        Category category = Category.builder()
+                .id(1L)
+                .name("fruit")
+                .build();
+        products = IntStream.range(0, pageSize)
+                .mapToObj(index -> Product.builder()
+                        .id((long) index)
+                        .name("Product " + index)
+                        .description("Description of product " + index)
+                        .price(index * 0.5)
+                        .quantity(index)
+                        .category(category)
+                        .build())
+                .toList();
+        products.forEach(productJsonMapper::toProductJson);
+    }
+
+    @Benchmark
+    public byte[] dtoMapperAndReflection() throws Exception {
+        return objectMapper.writeValueAsBytes(products.stream()
+                                                      .map(productMapper::toProductResponseDto)
+                                                      .toList());
+    }
+
+    @Benchmark
+    public byte[] directWriterUncached() throws Exception {
+        return objectMapper.writeValueAsBytes(products.stream()
+                                                      .map(productJsonMapper::encode)
+                                                      .toList());
+    }
+
+    @Benchmark
+    public byte[] preEncodedCached() throws Exception {
+        return objectMapper.writeValueAsBytes(products.stream()
+                                                      .map(productJsonMapper::toProductJson)
+                                                      .toList());
+    }
+}
@@ -0,0 +1,138 @@
+package com.pt.productinventory.service.impl;
+
+import com.pt.productinventory.ProductinventoryApplication;
+import com.pt.productinventory.model.Product;
+import com.pt.productinventory.model.ProductFilter;
+import com.pt.productinventory.model.dto.ProductJson;
+import com.pt.productinventory.model.enums.BulkFormat;
+import com.pt.productinventory.model.enums.SortDirection;
+import com.pt.productinventory.repository.ProductRepository;
+import com.pt.productinventory.search.ProductNameIndex;
+import com.pt.productinventory.service.ProductBulkService;
+import com.pt.productinventory.service.ProductService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Root;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.aop.framework.AopProxyUtils;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Query paths against an in-memory H2 catalog of {@code datasetSize} products, run with
+ * {@code -p datasetSize=1000000} to reproduce production sized catalogs.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ProductQueryBenchmark {
+
+    private static final String NAME_FILTER = "uct 4242";
+
+    @Param({"10000", "100000"})
+    private int datasetSize;
+
+    private ConfigurableApplicationContext context;
+    private ProductService productService;
+    private ProductServiceImpl productServiceImpl;
+    private ProductRepository productRepository;
+    private EntityManager entityManager;
+    private ProductFilter productFilter;
+    private ProductFilter nameFilter;
+    private PageRequest pageRequest;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = SpringApplication.run(ProductinventoryApplication.class,
+                                        "--spring.main.web-application-type=none",
+                                        "--spring.datasource.url=jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1",
+                                        "--spring.jpa.show-sql=false",
+                                        "--logging.level.root=WARN");
+        productService = context.getBean(ProductService.class);
+        ProductServiceImpl productServiceBean = context.getBean(ProductServiceImpl.class);
+        Object productServiceTarget = AopProxyUtils.getSingletonTarget(productServiceBean);
+        productServiceImpl = productServiceTarget instanceof ProductServiceImpl target ? target : productServiceBean;
+        productRepository = context.getBean(ProductRepository.class);
+        entityManager = context.getBean(EntityManager.class);
+
+        context.getBean(ProductBulkService.class).saveAll(createDataset(), BulkFormat.CSV);
+        context.getBean(ProductNameIndex.class).rebuild();
+
+        productFilter = ProductFilter.builder()
+                .name(NAME_FILTER)
+                .minPrice(10.0)
+                .maxPrice(datasetSize / 2.0)
+                .build();
+        nameFilter = ProductFilter.builder()
+                .name(NAME_FILTER)
+                .build();
+        pageRequest = PageRequest.of(0, 10, Sort.by("name").ascending());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Specification<Product> createFilterSpecification() {
+        return productServiceImpl.createFilterSpecification(productFilter);
+    }
+
+    @Benchmark
+    public CriteriaQuery<Product> buildFilterCriteriaQuery() {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Product> query = criteriaBuilder.createQuery(Product.class);
+        Root<Product> root = query.from(Product.class);
+
+        return query.where(productServiceImpl.createFilterSpecification(productFilter).toPredicate(root, query, criteriaBuilder));
+    }
+
+    @Benchmark
+    public Page<ProductJson> findAllPageable() {
+        return productService.findAllPageable(0, 10, "name", SortDirection.ASC, null, null, null);
+    }
+
+    @Benchmark
+    public Page<ProductJson> findAllPageableDeepPage() {
+        return productService.findAllPageable(datasetSize / 20, 10, "name", SortDirection.ASC, null, null, null);
+    }
+
+    /**
+     * Same repository call and page as the like variant below, only the name predicate differs.
+     */
+    @Benchmark
+    public Page<Product> findAllPageableNameFilterIndexed() {
+        return productRepository.findAll(productServiceImpl.createFilterSpecification(nameFilter), pageRequest);
+    }
+
+    @Benchmark
+    public Page<Product> findAllPageableNameFilterLike() {
+        Specification<Product> likeSpecification = (root, query, criteriaBuilder) ->
+                criteriaBuilder.like(root.get("name"), "%" + NAME_FILTER + "%");
+
+        return productRepository.findAll(likeSpecification, pageRequest);
+    }
+
+    private ByteArrayInputStream createDataset() {
+        StringBuilder csv = new StringBuilder("name,description,price,quantity\n");
+        for (int index = 0; index < datasetSize; index++) {
+            csv.append("Product ").append(index)
+                    .append(",Description of product ").append(index)
+                    .append(',').append(index % 1000 + 0.99)
+                    .append(',').append(index % 500)
+                    .append('\n');
+        }
+
+        return new ByteArrayInputStream(csv.toString().getBytes(StandardCharsets.UTF_8));
+    }
+}
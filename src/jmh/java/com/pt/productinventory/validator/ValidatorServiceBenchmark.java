@@ -0,0 +1,72 @@
+package com.pt.productinventory.validator;
+
+import com.pt.productinventory.ProductinventoryApplication;
+import com.pt.productinventory.error.exceptions.IllegalParameterException;
+import com.pt.productinventory.model.Product;
+import com.pt.productinventory.model.enums.SortDirection;
+import jakarta.validation.Validation;
+import jakarta.validation.ValidatorFactory;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Sort;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bean validation of a product and resolving the sortBy parameter, the registry is read from the JPA
+ * metamodel of an application context started once per trial.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ValidatorServiceBenchmark {
+
+    private ValidatorFactory validatorFactory;
+    private ValidatorService validatorService;
+    private ConfigurableApplicationContext context;
+    private SortFieldRegistry sortFieldRegistry;
+    private Product product;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+        validatorService = new ValidatorService(validatorFactory.getValidator());
+        context = SpringApplication.run(ProductinventoryApplication.class,
+                                        "--spring.main.web-application-type=none",
+                                        "--spring.datasource.url=jdbc:h2:mem:validator-benchmark;DB_CLOSE_DELAY=-1",
+                                        "--logging.level.root=WARN");
+        sortFieldRegistry = context.getBean(SortFieldRegistry.class);
+        product = Product.builder()
+                .name("Apple")
+                .description("This is a non GMO apple!")
+                .price(25.99)
+                .quantity(15)
+                .build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+        validatorFactory.close();
+    }
+
+    @Benchmark
+    public void validate() {
+        validatorService.validate(product);
+    }
+
+    @Benchmark
+    public Sort resolveSort() {
+        return sortFieldRegistry.resolveSort(Product.class, "price", SortDirection.ASC);
+    }
+
+    @Benchmark
+    public Object resolveSortInvalid() {
+        try {
+            return sortFieldRegistry.resolveSort(Product.class, "unknown", SortDirection.ASC);
+        } catch (IllegalParameterException e) {
+            return e;
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package com.pt.productinventory.analytics;
+
+import com.pt.productinventory.model.ProductRow;
+import com.pt.productinventory.model.dto.ChangeEventDto;
+import com.pt.productinventory.model.dto.ChangeFeedDto;
+import com.pt.productinventory.model.dto.ProductColumnsDto;
+import com.pt.productinventory.model.dto.ProductStatsDto;
+import com.pt.productinventory.model.enums.ChangeEntityType;
+import com.pt.productinventory.model.enums.ColumnSortField;
+import com.pt.productinventory.model.enums.SortDirection;
+import com.pt.productinventory.repository.ChangeEventRepository;
+import com.pt.productinventory.repository.ProductRepository;
+import com.pt.productinventory.service.ChangeEventService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+
+/**
+ * In-memory columnar copy of the product table for analytical reads. It is loaded once at startup and then
+ * follows the change feed, so every write path that records change events, bulk statements and the stock
+ * flush included, reaches the snapshot within one refresh interval.
+ */
+@Component
+@ConditionalOnProperty(name = "inventory.analytics.enabled", havingValue = "true")
+@Slf4j
+public class ProductColumnStore {
+
+    private final ProductRepository productRepository;
+    private final ChangeEventRepository changeEventRepository;
+    private final ChangeEventService changeEventService;
+    private final TransactionTemplate transactionTemplate;
+    private final int refreshBatchSize;
+    private final String className = this.getClass().getSimpleName();
+    private volatile ProductColumns columns = ProductColumns.EMPTY;
+    private volatile long cursor;
+    private volatile boolean ready;
+
+    public ProductColumnStore(ProductRepository productRepository,
+                              ChangeEventRepository changeEventRepository,
+                              ChangeEventService changeEventService,
+                              TransactionTemplate transactionTemplate,
+                              @Value("${inventory.analytics.refresh-batch-size:1000}") int refreshBatchSize) {
+        this.productRepository = productRepository;
+        this.changeEventRepository = changeEventRepository;
+        this.changeEventService = changeEventService;
+        this.transactionTemplate = transactionTemplate;
+        this.refreshBatchSize = refreshBatchSize;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        log.debug("calling load method in {}", className);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            // the cursor is taken before the table is read, replaying a change is harmless but missing one is not
+            cursor = changeEventRepository.findLastPosition();
+
+            ProductColumns.Builder builder = new ProductColumns.Builder(1024);
+            try (Stream<ProductRow> productRows = productRepository.streamRows()) {
+                productRows.forEach(builder::add);
+            }
+            columns = builder.build();
+        });
+        ready = true;
+
+        log.info("Product column snapshot loaded with {} products", columns.size());
+    }
+
+    @Scheduled(fixedDelayString = "${inventory.analytics.refresh-interval-ms:1000}")
+    public void refresh() {
+        if (!ready) {
+            return;
+        }
+
+        Set<Long> changedIds = new HashSet<>();
+        long since = cursor;
+        List<ChangeEventDto> events;
+        do {
+            ChangeFeedDto changeFeed = changeEventService.poll(since, refreshBatchSize, 0L).join();
+            events = changeFeed.getEvents();
+            events.stream()
+                    .filter(event -> event.getEntityType() == ChangeEntityType.PRODUCT)
+                    .forEach(event -> changedIds.add(event.getEntityId()));
+            since = changeFeed.getNextCursor();
+        } while (events.size() == refreshBatchSize);
+
+        if (!changedIds.isEmpty()) {
+            // changed products are read again, the ones that are gone were deleted
+            SortedMap<Long, ProductRow> upserts = new TreeMap<>();
+            List<Long> ids = new ArrayList<>(changedIds);
+            transactionTemplate.executeWithoutResult(status -> {
+                for (int from = 0; from < ids.size(); from += refreshBatchSize) {
+                    productRepository.findRowsByIdIn(ids.subList(from, Math.min(from + refreshBatchSize, ids.size())))
+                            .forEach(productRow -> upserts.put(productRow.id(), productRow));
+                }
+            });
+            changedIds.removeAll(upserts.keySet());
+            columns = columns.merge(upserts, changedIds);
+
+            log.debug("Product column snapshot refreshed with {} changed and {} deleted products",
+                      upserts.size(), changedIds.size());
+        }
+        cursor = since;
+    }
+
+    public ProductStatsDto aggregate(double minPrice, double maxPrice, Collection<Long> categoryIds) {
+        return columns.aggregate(minPrice, maxPrice, categoryIds);
+    }
+
+    public ProductColumnsDto select(double minPrice,
+                                    double maxPrice,
+                                    Collection<Long> categoryIds,
+                                    ColumnSortField sortBy,
+                                    SortDirection sortDirection,
+                                    int limit) {
+        return columns.select(minPrice, maxPrice, categoryIds, sortBy, sortDirection, limit);
+    }
+}
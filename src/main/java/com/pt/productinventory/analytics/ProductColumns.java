@@ -0,0 +1,349 @@
+package com.pt.productinventory.analytics;
+
+import com.pt.productinventory.model.ProductRow;
+import com.pt.productinventory.model.dto.ProductColumnsDto;
+import com.pt.productinventory.model.dto.ProductStatsDto;
+import com.pt.productinventory.model.enums.ColumnSortField;
+import com.pt.productinventory.model.enums.SortDirection;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.stream.IntStream;
+
+/**
+ * Immutable column arrays of the product table in id order. Category ids are dictionary encoded, code 0 stands for
+ * products without a category. The row orders by price and by quantity are built with the columns, so sorted and
+ * price range reads walk an order instead of sorting, and no read allocates per row. A merge only sorts the
+ * changed rows and merges them into the previous orders.
+ */
+final class ProductColumns {
+
+    static final ProductColumns EMPTY = new Builder(0).build();
+
+    private static final int NO_CATEGORY = 0;
+
+    private final long[] ids;
+    private final double[] prices;
+    private final int[] quantities;
+    private final int[] categoryCodes;
+    private final Long[] categoryDictionary;
+    private final Map<Long, Integer> categoryCodesById;
+    private final int[] priceOrder;
+    private final int[] quantityOrder;
+
+    private ProductColumns(long[] ids,
+                           double[] prices,
+                           int[] quantities,
+                           int[] categoryCodes,
+                           Long[] categoryDictionary,
+                           Map<Long, Integer> categoryCodesById,
+                           int[] priceOrder,
+                           int[] quantityOrder) {
+        this.ids = ids;
+        this.prices = prices;
+        this.quantities = quantities;
+        this.categoryCodes = categoryCodes;
+        this.categoryDictionary = categoryDictionary;
+        this.categoryCodesById = categoryCodesById;
+        this.priceOrder = priceOrder;
+        this.quantityOrder = quantityOrder;
+    }
+
+    int size() {
+        return ids.length;
+    }
+
+    /**
+     * Returns a copy with the given rows inserted or replaced and the deleted ids left out.
+     */
+    ProductColumns merge(SortedMap<Long, ProductRow> upserts, Set<Long> deletedIds) {
+        Builder builder = new Builder(ids.length + upserts.size());
+        // row of every previous row in the copy, -1 when it was replaced or deleted
+        int[] newRows = new int[ids.length];
+        int[] upsertRows = new int[upserts.size()];
+        int upsertCount = 0;
+        Iterator<ProductRow> upsertIterator = upserts.values().iterator();
+        ProductRow upsert = upsertIterator.hasNext() ? upsertIterator.next() : null;
+
+        for (int row = 0; row < ids.length; row++) {
+            long id = ids[row];
+            while (Objects.nonNull(upsert) && upsert.id() <= id) {
+                upsertRows[upsertCount++] = builder.add(upsert);
+                upsert = upsertIterator.hasNext() ? upsertIterator.next() : null;
+            }
+            newRows[row] = upserts.containsKey(id) || deletedIds.contains(id)
+                           ? -1
+                           : builder.add(id, prices[row], quantities[row], categoryDictionary[categoryCodes[row]]);
+        }
+        while (Objects.nonNull(upsert)) {
+            upsertRows[upsertCount++] = builder.add(upsert);
+            upsert = upsertIterator.hasNext() ? upsertIterator.next() : null;
+        }
+
+        // kept rows keep their values and relative row order, so the remapped previous orders are still sorted
+        RowComparator byPrice = builder.byPrice();
+        RowComparator byQuantity = builder.byQuantity();
+        return builder.build(mergeOrder(priceOrder, newRows, sortRows(upsertRows, byPrice), byPrice, builder.size()),
+                             mergeOrder(quantityOrder, newRows, sortRows(upsertRows, byQuantity), byQuantity, builder.size()));
+    }
+
+    ProductStatsDto aggregate(double minPrice, double maxPrice, Collection<Long> categoryIds) {
+        boolean[] selectedCodes = selectCategoryCodes(categoryIds);
+        long count = 0;
+        long totalQuantity = 0;
+        double min = Double.POSITIVE_INFINITY;
+        double max = Double.NEGATIVE_INFINITY;
+        double totalPrice = 0;
+        double totalStockValue = 0;
+
+        for (int row = 0; row < ids.length; row++) {
+            double price = prices[row];
+            if (price >= minPrice && price <= maxPrice
+                    && (Objects.isNull(selectedCodes) || selectedCodes[categoryCodes[row]])) {
+                int quantity = quantities[row];
+                count++;
+                totalQuantity += quantity;
+                min = Math.min(min, price);
+                max = Math.max(max, price);
+                totalPrice += price;
+                totalStockValue += price * quantity;
+            }
+        }
+
+        return count == 0
+               ? new ProductStatsDto(0L, 0L, null, null, null, 0.0)
+               : new ProductStatsDto(count, totalQuantity, min, max, totalPrice / count, totalStockValue);
+    }
+
+    ProductColumnsDto select(double minPrice,
+                             double maxPrice,
+                             Collection<Long> categoryIds,
+                             ColumnSortField sortBy,
+                             SortDirection sortDirection,
+                             int limit) {
+        boolean[] selectedCodes = selectCategoryCodes(categoryIds);
+        int[] order = switch (sortBy) {
+            case ID -> null;
+            case PRICE -> priceOrder;
+            case QUANTITY -> quantityOrder;
+        };
+        // the price order answers the price range itself, other orders check it per row
+        int from = sortBy == ColumnSortField.PRICE ? firstPricePosition(minPrice, false) : 0;
+        int to = sortBy == ColumnSortField.PRICE ? firstPricePosition(maxPrice, true) : ids.length;
+
+        int[] rows = new int[Math.min(limit, Math.max(to - from, 0))];
+        int found = 0;
+        boolean ascending = sortDirection == SortDirection.ASC;
+        for (int i = 0; i < to - from && found < rows.length; i++) {
+            int position = ascending ? from + i : to - 1 - i;
+            int row = Objects.isNull(order) ? position : order[position];
+            double price = prices[row];
+            if (price >= minPrice && price <= maxPrice
+                    && (Objects.isNull(selectedCodes) || selectedCodes[categoryCodes[row]])) {
+                rows[found++] = row;
+            }
+        }
+
+        ProductColumnsDto productColumns = new ProductColumnsDto(new long[found], new double[found], new int[found],
+                                                                 new int[found], categoryDictionary);
+        for (int i = 0; i < found; i++) {
+            productColumns.getIds()[i] = ids[rows[i]];
+            productColumns.getPrices()[i] = prices[rows[i]];
+            productColumns.getQuantities()[i] = quantities[rows[i]];
+            productColumns.getCategoryCodes()[i] = categoryCodes[rows[i]];
+        }
+
+        return productColumns;
+    }
+
+    /**
+     * Position in the price order of the first row priced at least (or, when inclusive, above) the given price.
+     */
+    int firstPricePosition(double price, boolean inclusive) {
+        int low = 0;
+        int high = priceOrder.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            double middlePrice = prices[priceOrder[middle]];
+            if (middlePrice < price || (inclusive && middlePrice == price)) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+
+        return low;
+    }
+
+    private boolean[] selectCategoryCodes(Collection<Long> categoryIds) {
+        if (Objects.isNull(categoryIds) || categoryIds.isEmpty()) {
+            return null;
+        }
+
+        boolean[] selectedCodes = new boolean[categoryDictionary.length];
+        for (Long categoryId : categoryIds) {
+            Integer code = categoryCodesById.get(categoryId);
+            if (Objects.nonNull(code)) {
+                selectedCodes[code] = true;
+            }
+        }
+
+        return selectedCodes;
+    }
+
+    /**
+     * Stable bottom-up merge sort of row indexes, without boxing them.
+     */
+    static int[] sortRows(int[] rows, RowComparator comparator) {
+        int[] source = rows.clone();
+        int[] target = new int[rows.length];
+        for (int width = 1; width < source.length; width *= 2) {
+            for (int low = 0; low < source.length; low += 2 * width) {
+                int middle = Math.min(low + width, source.length);
+                int high = Math.min(low + 2 * width, source.length);
+                int left = low;
+                int right = middle;
+                for (int i = low; i < high; i++) {
+                    target[i] = left < middle && (right == high || comparator.compare(source[left], source[right]) <= 0)
+                                ? source[left++]
+                                : source[right++];
+                }
+            }
+            int[] sorted = target;
+            target = source;
+            source = sorted;
+        }
+
+        return source;
+    }
+
+    /**
+     * Merges the sorted changed rows into the previous order, remapped to the rows of the copy.
+     */
+    private static int[] mergeOrder(int[] previousOrder, int[] newRows, int[] sortedUpsertRows, RowComparator comparator, int size) {
+        int[] order = new int[size];
+        int position = 0;
+        int upsert = 0;
+        for (int previousRow : previousOrder) {
+            int row = newRows[previousRow];
+            if (row < 0) {
+                continue;
+            }
+            while (upsert < sortedUpsertRows.length && comparator.compare(sortedUpsertRows[upsert], row) < 0) {
+                order[position++] = sortedUpsertRows[upsert++];
+            }
+            order[position++] = row;
+        }
+        while (upsert < sortedUpsertRows.length) {
+            order[position++] = sortedUpsertRows[upsert++];
+        }
+
+        return order;
+    }
+
+    /**
+     * Orders rows by a column value, equal values by row and so by id.
+     */
+    @FunctionalInterface
+    interface RowComparator {
+        int compare(int leftRow, int rightRow);
+    }
+
+    /**
+     * Appends rows in ascending id order.
+     */
+    static final class Builder {
+
+        private final Map<Long, Integer> categoryCodesById = new HashMap<>();
+        private final List<Long> categoryDictionary = new ArrayList<>();
+        private long[] ids;
+        private double[] prices;
+        private int[] quantities;
+        private int[] categoryCodes;
+        private int size;
+
+        Builder(int capacity) {
+            ids = new long[capacity];
+            prices = new double[capacity];
+            quantities = new int[capacity];
+            categoryCodes = new int[capacity];
+            categoryDictionary.add(null);
+        }
+
+        int add(ProductRow productRow) {
+            return add(productRow.id(), productRow.price(), productRow.quantity(), productRow.categoryId());
+        }
+
+        /**
+         * Returns the row of the added product.
+         */
+        int add(long id, double price, int quantity, Long categoryId) {
+            if (size == ids.length) {
+                int capacity = Math.max(16, size * 2);
+                ids = Arrays.copyOf(ids, capacity);
+                prices = Arrays.copyOf(prices, capacity);
+                quantities = Arrays.copyOf(quantities, capacity);
+                categoryCodes = Arrays.copyOf(categoryCodes, capacity);
+            }
+
+            ids[size] = id;
+            prices[size] = price;
+            quantities[size] = quantity;
+            categoryCodes[size] = Objects.isNull(categoryId)
+                                  ? NO_CATEGORY
+                                  : categoryCodesById.computeIfAbsent(categoryId, key -> {
+                                      categoryDictionary.add(key);
+                                      return categoryDictionary.size() - 1;
+                                  });
+            return size++;
+        }
+
+        int size() {
+            return size;
+        }
+
+        RowComparator byPrice() {
+            double[] rowPrices = prices;
+            return (leftRow, rightRow) -> {
+                int comparison = Double.compare(rowPrices[leftRow], rowPrices[rightRow]);
+                return comparison != 0 ? comparison : Integer.compare(leftRow, rightRow);
+            };
+        }
+
+        RowComparator byQuantity() {
+            int[] rowQuantities = quantities;
+            return (leftRow, rightRow) -> {
+                int comparison = Integer.compare(rowQuantities[leftRow], rowQuantities[rightRow]);
+                return comparison != 0 ? comparison : Integer.compare(leftRow, rightRow);
+            };
+        }
+
+        ProductColumns build() {
+            int[] rows = IntStream.range(0, size).toArray();
+
+            return build(sortRows(rows, byPrice()), sortRows(rows, byQuantity()));
+        }
+
+        /**
+         * Builds the columns with row orders that were maintained by the caller.
+         */
+        ProductColumns build(int[] priceOrder, int[] quantityOrder) {
+            return new ProductColumns(Arrays.copyOf(ids, size),
+                                      Arrays.copyOf(prices, size),
+                                      Arrays.copyOf(quantities, size),
+                                      Arrays.copyOf(categoryCodes, size),
+                                      categoryDictionary.toArray(Long[]::new),
+                                      Map.copyOf(categoryCodesById),
+                                      priceOrder,
+                                      quantityOrder);
+        }
+    }
+}
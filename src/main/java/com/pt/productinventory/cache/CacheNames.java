@@ -0,0 +1,11 @@
+package com.pt.productinventory.cache;
+
+public final class CacheNames {
+
+    public static final String PRODUCTS = "products";
+    public static final String CATEGORIES_BY_NAME = "categoriesByName";
+    public static final String CATEGORY_SUMMARIES = "categorySummaries";
+
+    private CacheNames() {
+    }
+}
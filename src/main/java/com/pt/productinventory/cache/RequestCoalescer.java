@@ -0,0 +1,110 @@
+package com.pt.productinventory.cache;
+
+import com.pt.productinventory.datasource.PrimaryPinning;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Single flight for identical reads: the first caller of a key runs the loader in a read-only transaction and
+ * concurrent callers of the same key wait for its result instead of issuing the same query. Waiters don't hold
+ * a transaction or connection, and one that waits longer than {@code inventory.coalescing.max-wait-ms} runs the
+ * loader itself. Outcomes are counted in {@code inventory.coalescing.calls}.
+ */
+@Component
+@Slf4j
+public class RequestCoalescer {
+
+    private final ConcurrentMap<FlightKey, CompletableFuture<Object>> flights = new ConcurrentHashMap<>();
+    // keyed by name and outcome, registering a counter on every call looks it up in the registry
+    private final ConcurrentMap<String, Counter> calls = new ConcurrentHashMap<>();
+    private final TransactionTemplate readOnlyTransactionTemplate;
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+    private final long maxWaitMs;
+
+    public RequestCoalescer(PlatformTransactionManager transactionManager,
+                            MeterRegistry meterRegistry,
+                            @Value("${inventory.coalescing.enabled:true}") boolean enabled,
+                            @Value("${inventory.coalescing.max-wait-ms:2000}") long maxWaitMs) {
+        this.readOnlyTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate.setReadOnly(true);
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.maxWaitMs = maxWaitMs;
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> T execute(String name, Object key, Supplier<T> loader) {
+        if (!enabled) {
+            return load(loader);
+        }
+
+        // callers pinned to the primary must not be handed a result read from a replica
+        FlightKey flightKey = new FlightKey(name, key, PrimaryPinning.isPinned());
+        CompletableFuture<Object> flight = new CompletableFuture<>();
+        CompletableFuture<Object> running = flights.putIfAbsent(flightKey, flight);
+
+        if (running == null) {
+            count(name, "leader");
+            try {
+                T value = load(loader);
+                flight.complete(value);
+                return value;
+            } catch (RuntimeException e) {
+                flight.completeExceptionally(e);
+                throw e;
+            } finally {
+                // later callers start a new flight and see writes committed after this one
+                flights.remove(flightKey, flight);
+            }
+        }
+
+        try {
+            T value = (T) running.get(maxWaitMs, TimeUnit.MILLISECONDS);
+            count(name, "coalesced");
+            return value;
+        } catch (TimeoutException e) {
+            count(name, "timeout");
+            log.debug("Waited {} ms for {} {}, loading it separately", maxWaitMs, name, key);
+            return load(loader);
+        } catch (ExecutionException e) {
+            count(name, "coalesced");
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for " + name + " " + key, e);
+        }
+    }
+
+    private <T> T load(Supplier<T> loader) {
+        return readOnlyTransactionTemplate.execute(status -> loader.get());
+    }
+
+    private void count(String name, String outcome) {
+        calls.computeIfAbsent(name + ":" + outcome, key -> Counter
+                        .builder("inventory.coalescing.calls")
+                        .description("Coalesced reads by outcome, leader calls hit the database")
+                        .tags("name", name, "outcome", outcome)
+                        .register(meterRegistry))
+                .increment();
+    }
+
+    private record FlightKey(String name, Object key, boolean primary) {
+    }
+}
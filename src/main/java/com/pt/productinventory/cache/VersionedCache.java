@@ -0,0 +1,125 @@
+package com.pt.productinventory.cache;
+
+import com.pt.productinventory.util.TransactionCallbacks;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.Objects;
+import java.util.function.Supplier;
+
+/**
+ * Read-through cache on top of the configured {@link CacheManager}. Entries carry the entity version,
+ * writes leave a tombstone with the committed version so a read that loaded an older row before the
+ * commit can't put it back.
+ */
+@Component
+@AllArgsConstructor
+@Slf4j
+public class VersionedCache {
+
+    private static final Comparator<Long> VERSION_COMPARATOR = Comparator.nullsFirst(Comparator.naturalOrder());
+    private static final Comparator<VersionedValue<?>> VALUE_COMPARATOR = Comparator
+            .comparing((VersionedValue<?> value) -> value.version(), VERSION_COMPARATOR)
+            .thenComparing(VersionedValue::relatedVersion, VERSION_COMPARATOR);
+
+    private final CacheManager cacheManager;
+
+    public <T> T get(String cacheName, Object key, Supplier<VersionedValue<T>> loader) {
+        return getEntry(cacheName, key, loader).value();
+    }
+
+    /**
+     * Same as {@link #get(String, Object, Supplier)} but keeps the versions, e.g. to build an entity tag.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> VersionedValue<T> getEntry(String cacheName, Object key, Supplier<VersionedValue<T>> loader) {
+        Cache cache = getCache(cacheName);
+
+        VersionedValue<T> cached = cache.get(key, VersionedValue.class);
+        if (Objects.nonNull(cached) && !cached.isTombstone()) {
+            return cached;
+        }
+
+        VersionedValue<T> loaded = loader.get();
+        merge(cache, key, loaded);
+
+        return loaded;
+    }
+
+    /**
+     * Returns the cached value, or null when the key is not cached or was written since it was loaded.
+     */
+    public <T> T getIfPresent(String cacheName, Object key) {
+        VersionedValue<T> cached = getEntryIfPresent(cacheName, key);
+
+        return Objects.nonNull(cached) ? cached.value() : null;
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> VersionedValue<T> getEntryIfPresent(String cacheName, Object key) {
+        VersionedValue<T> cached = getCache(cacheName).get(key, VersionedValue.class);
+
+        return Objects.nonNull(cached) && !cached.isTombstone() ? cached : null;
+    }
+
+    public void put(String cacheName, Object key, VersionedValue<?> value) {
+        merge(getCache(cacheName), key, value);
+    }
+
+    public void evict(String cacheName, Object key, Supplier<Long> writtenVersion) {
+        Cache cache = getCache(cacheName);
+
+        TransactionCallbacks.afterCommit(() -> merge(cache, key, VersionedValue.tombstone(writtenVersion.get())));
+    }
+
+    /**
+     * Invalidates an entry whose own version didn't change but whose related entity was written, e.g. the
+     * products of a renamed category.
+     */
+    public void evict(String cacheName, Object key, Supplier<Long> version, Supplier<Long> writtenRelatedVersion) {
+        Cache cache = getCache(cacheName);
+
+        TransactionCallbacks.afterCommit(() -> merge(cache, key, VersionedValue.tombstone(version.get(), writtenRelatedVersion.get())));
+    }
+
+    public void evict(String cacheName, Object key) {
+        Cache cache = getCache(cacheName);
+
+        TransactionCallbacks.afterCommit(() -> cache.evict(key));
+    }
+
+    public void clear(String cacheName) {
+        Cache cache = getCache(cacheName);
+
+        TransactionCallbacks.afterCommit(cache::clear);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void merge(Cache cache, Object key, VersionedValue<?> incoming) {
+        if (cache.getNativeCache() instanceof com.github.benmanes.caffeine.cache.Cache<?, ?> caffeineCache) {
+            ((com.github.benmanes.caffeine.cache.Cache<Object, Object>) caffeineCache).asMap()
+                    .compute(key, (k, current) -> isNewer(incoming, (VersionedValue<?>) current) ? incoming : current);
+            return;
+        }
+
+        // providers without an atomic compute fall back to last write wins
+        cache.put(key, incoming);
+    }
+
+    private boolean isNewer(VersionedValue<?> incoming, VersionedValue<?> current) {
+        if (Objects.isNull(current)) {
+            return true;
+        }
+
+        int comparison = VALUE_COMPARATOR.compare(incoming, current);
+        return comparison > 0 || (comparison == 0 && current.isTombstone() && !incoming.isTombstone());
+    }
+
+    private Cache getCache(String cacheName) {
+        return Objects.requireNonNull(cacheManager.getCache(cacheName), "No cache configured with name: " + cacheName);
+    }
+}
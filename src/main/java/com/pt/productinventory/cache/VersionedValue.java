@@ -0,0 +1,25 @@
+package com.pt.productinventory.cache;
+
+/**
+ * Cached value tagged with the {@link com.pt.productinventory.model.LockVersion} it was read at,
+ * a null value marks an invalidated entry. Values that embed another entity, e.g. the category name of
+ * a product, also carry that entity's version, it orders entries of the same version.
+ */
+public record VersionedValue<T>(Long version, Long relatedVersion, T value) {
+
+    public VersionedValue(Long version, T value) {
+        this(version, null, value);
+    }
+
+    public static <T> VersionedValue<T> tombstone(Long version) {
+        return tombstone(version, null);
+    }
+
+    public static <T> VersionedValue<T> tombstone(Long version, Long relatedVersion) {
+        return new VersionedValue<>(version, relatedVersion, null);
+    }
+
+    public boolean isTombstone() {
+        return value == null;
+    }
+}
@@ -0,0 +1,31 @@
+package com.pt.productinventory.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.pt.productinventory.cache.CacheNames;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.cache.CacheManagerCustomizer;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    /**
+     * Category summaries aggregate the whole product table and change with every stock movement, so instead
+     * of being evicted on writes they are recomputed at most once per max-staleness.
+     */
+    @Bean
+    public CacheManagerCustomizer<CaffeineCacheManager> categorySummariesCacheCustomizer(
+            @Value("${inventory.category-summary.max-staleness-ms:5000}") long maxStalenessMs) {
+        return cacheManager -> cacheManager.registerCustomCache(CacheNames.CATEGORY_SUMMARIES, Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofMillis(maxStalenessMs))
+                .maximumSize(1)
+                .recordStats()
+                .build());
+    }
+}
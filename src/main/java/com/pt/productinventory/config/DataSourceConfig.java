@@ -0,0 +1,83 @@
+package com.pt.productinventory.config;
+
+import com.pt.productinventory.datasource.ReadYourWritesFilter;
+import com.pt.productinventory.datasource.ReplicaDataSourceProperties;
+import com.pt.productinventory.datasource.ReplicaRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Sends connections of read-only transactions to the replicas and everything else to the primary. Only active
+ * when at least one replica is configured, otherwise Boot's single datasource is used unchanged.
+ */
+@Configuration
+@ConditionalOnProperty(name = "inventory.datasource.replicas[0].url")
+@EnableConfigurationProperties(ReplicaDataSourceProperties.class)
+public class DataSourceConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties dataSourceProperties) {
+        HikariDataSource primaryDataSource = dataSourceProperties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+        primaryDataSource.setPoolName("primary");
+
+        return primaryDataSource;
+    }
+
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(@Qualifier("primaryDataSource") DataSource primaryDataSource,
+                                                             ReplicaDataSourceProperties replicaDataSourceProperties,
+                                                             MeterRegistry meterRegistry) {
+        List<DataSourceProperties> replicaProperties = replicaDataSourceProperties.getReplicas();
+        List<HikariDataSource> replicas = IntStream.range(0, replicaProperties.size())
+                .mapToObj(index -> {
+                    HikariDataSource replica = replicaProperties.get(index).initializeDataSourceBuilder()
+                            .type(HikariDataSource.class)
+                            .build();
+                    replica.setPoolName("replica-" + (index + 1));
+                    replica.setMaximumPoolSize(replicaDataSourceProperties.getReplicaPoolSize());
+                    replica.setReadOnly(true);
+                    // the replicas are not beans, so Boot doesn't bind their pool metrics
+                    replica.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+                    return replica;
+                })
+                .toList();
+
+        return new ReplicaRoutingDataSource(primaryDataSource, replicas, meterRegistry);
+    }
+
+    /**
+     * The lazy proxy defers fetching the physical connection until the first statement, by then the
+     * transaction manager has marked it read-only and the proxy can pick the replica side.
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primaryDataSource,
+                                 ReplicaRoutingDataSource replicaRoutingDataSource) {
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(primaryDataSource);
+        dataSource.setReadOnlyDataSource(replicaRoutingDataSource);
+
+        return dataSource;
+    }
+
+    @Bean
+    public ReadYourWritesFilter readYourWritesFilter(ReplicaDataSourceProperties replicaDataSourceProperties) {
+        return new ReadYourWritesFilter(replicaDataSourceProperties.getStickyPrimaryMs());
+    }
+}
@@ -0,0 +1,28 @@
+package com.pt.productinventory.config;
+
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.filter.ShallowEtagHeaderFilter;
+
+/**
+ * Single resources get a strong ETag from their versions in the controllers. Pages span many rows, so they get
+ * a weak ETag hashed from the rendered body, which saves the download but not the query.
+ */
+@Configuration
+public class HttpCacheConfig {
+
+    @Bean
+    public FilterRegistrationBean<ShallowEtagHeaderFilter> pageEtagFilter() {
+        ShallowEtagHeaderFilter shallowEtagHeaderFilter = new ShallowEtagHeaderFilter();
+        shallowEtagHeaderFilter.setWriteWeakETag(true);
+
+        FilterRegistrationBean<ShallowEtagHeaderFilter> registration = new FilterRegistrationBean<>(shallowEtagHeaderFilter);
+        registration.addUrlPatterns("/api/v1/products/paginated",
+                                    "/api/v1/products/scroll",
+                                    "/api/v1/category/paginated",
+                                    "/api/v1/category/scroll");
+
+        return registration;
+    }
+}
@@ -0,0 +1,47 @@
+package com.pt.productinventory.config;
+
+import com.pt.productinventory.metrics.StatementCountInterceptor;
+import com.pt.productinventory.metrics.StatementCounter;
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Service timers and per-request statement counting. Without this configuration the {@code @Timed}
+ * annotations are not woven and no statement inspector is installed, so disabling metrics costs nothing
+ * on the request path.
+ */
+@Configuration
+@ConditionalOnProperty(name = "inventory.metrics.enabled", havingValue = "true", matchIfMissing = true)
+public class MetricsConfig {
+
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry meterRegistry) {
+        return new TimedAspect(meterRegistry);
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer statementCounterCustomizer() {
+        return hibernateProperties -> hibernateProperties.put(AvailableSettings.STATEMENT_INSPECTOR, new StatementCounter());
+    }
+
+    @Bean
+    public WebMvcConfigurer statementCountConfigurer(MeterRegistry meterRegistry,
+                                                     @Value("${inventory.metrics.statement-warn-threshold:20}") int warnThreshold) {
+        StatementCountInterceptor statementCountInterceptor = new StatementCountInterceptor(meterRegistry, warnThreshold);
+
+        return new WebMvcConfigurer() {
+            @Override
+            public void addInterceptors(InterceptorRegistry registry) {
+                registry.addInterceptor(statementCountInterceptor).addPathPatterns("/api/**");
+            }
+        };
+    }
+}
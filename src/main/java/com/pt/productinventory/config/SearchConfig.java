@@ -0,0 +1,10 @@
+package com.pt.productinventory.config;
+
+import com.pt.productinventory.search.ProductSearchProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(ProductSearchProperties.class)
+public class SearchConfig {
+}
@@ -1,19 +1,27 @@
 package com.pt.productinventory.controller;
 
+import com.pt.productinventory.model.ETagged;
 import com.pt.productinventory.model.enums.SortDirection;
+import com.pt.productinventory.model.dto.BatchResponseDto;
 import com.pt.productinventory.model.dto.CategoryRequestDto;
 import com.pt.productinventory.model.dto.CategoryResponseDto;
+import com.pt.productinventory.model.dto.CategorySummaryDto;
 import com.pt.productinventory.model.dto.CategoryUpdateDto;
+import com.pt.productinventory.model.dto.WindowResponseDto;
 import com.pt.productinventory.service.CategoryService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.AllArgsConstructor;
 import org.springframework.data.domain.Page;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
+import java.util.Objects;
 
 @RestController
 @RequestMapping("/api/v1/category")
@@ -31,8 +39,8 @@ public class CategoryController {
 
     @Operation(summary = "Get all categories")
     @GetMapping
-    public ResponseEntity<List<CategoryResponseDto>> findAll() {
-        return ResponseEntity.ok(categoryService.findAll());
+    public ResponseEntity<List<CategoryResponseDto>> findAll(@RequestParam(defaultValue = "true") boolean includeProducts) {
+        return ResponseEntity.ok(categoryService.findAll(includeProducts));
     }
 
     @Operation(summary = "Get all categories paginated")
@@ -40,15 +48,53 @@ public class CategoryController {
     public ResponseEntity<Page<CategoryResponseDto>> findAllPageable(@RequestParam(defaultValue = "0") Integer pageNum,
                                                                      @RequestParam(defaultValue = "10") Integer pageSize,
                                                                      @RequestParam(defaultValue = "name") String sortBy,
-                                                                     @RequestParam(defaultValue = "ASC") SortDirection sortDirection) {
-        return ResponseEntity.ok(categoryService.findAllPageable(pageNum, pageSize, sortBy, sortDirection));
+                                                                     @RequestParam(defaultValue = "ASC") SortDirection sortDirection,
+                                                                     @RequestParam(defaultValue = "true") boolean includeProducts) {
+        return ResponseEntity.ok(categoryService.findAllPageable(pageNum, pageSize, sortBy, sortDirection, includeProducts));
+    }
+
+    @Operation(summary = "Get product count, stock and price statistics of every category")
+    @GetMapping("/summary")
+    public ResponseEntity<List<CategorySummaryDto>> findAllSummaries() {
+        return ResponseEntity.ok(categoryService.findAllSummaries());
+    }
+
+    @Operation(summary = "Get all categories with keyset pagination")
+    @GetMapping("/scroll")
+    public ResponseEntity<WindowResponseDto<CategoryResponseDto>> findAllScrollable(@RequestParam(defaultValue = "10") Integer pageSize,
+                                                                                    @RequestParam(defaultValue = "name") String sortBy,
+                                                                                    @RequestParam(defaultValue = "ASC") SortDirection sortDirection,
+                                                                                    @RequestParam(required = false) String continuationToken,
+                                                                                    @RequestParam(defaultValue = "false") boolean includeTotal) {
+        return ResponseEntity.ok(categoryService.findAllScrollable(pageSize, sortBy, sortDirection, continuationToken, includeTotal));
     }
 
     @Operation(summary = "Get category by id")
     @GetMapping("/{id}")
-    public ResponseEntity<CategoryResponseDto> findByIdResponseDto(@PathVariable("id") Long id) {
-        return ResponseEntity.ok(categoryService.findByIdResponseDto(id));
+    public ResponseEntity<CategoryResponseDto> findByIdResponseDto(@PathVariable("id") Long id, WebRequest webRequest) {
+        // only conditional requests need the tag before the body, plain reads take it from the loaded versions
+        if (Objects.nonNull(webRequest.getHeader(HttpHeaders.IF_NONE_MATCH))) {
+            String eTag = categoryService.findETag(id);
+            if (webRequest.checkNotModified(eTag)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build();
+            }
+        }
+
+        ETagged<CategoryResponseDto> category = categoryService.findByIdWithETag(id);
+
+        return ResponseEntity.ok().eTag(category.eTag()).body(category.body());
+    }
+
+    @Operation(summary = "Get categories by ids in request order, ids that don't exist are listed as missing")
+    @GetMapping("/batch")
+    public ResponseEntity<BatchResponseDto<CategoryResponseDto>> findAllByIds(@RequestParam List<Long> ids) {
+        return ResponseEntity.ok(categoryService.findAllByIds(ids));
+    }
 
+    @Operation(summary = "Get categories by ids sent in the body, for id lists too long for a query string")
+    @PostMapping("/batch")
+    public ResponseEntity<BatchResponseDto<CategoryResponseDto>> findAllByIdsInBody(@RequestBody List<Long> ids) {
+        return ResponseEntity.ok(categoryService.findAllByIds(ids));
     }
 
     @Operation(summary = "Search category by name")
@@ -0,0 +1,28 @@
+package com.pt.productinventory.controller;
+
+import com.pt.productinventory.model.dto.ChangeFeedDto;
+import com.pt.productinventory.service.ChangeEventService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.AllArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.concurrent.CompletableFuture;
+
+@RestController
+@RequestMapping("/api/v1/changes")
+@AllArgsConstructor
+@Tag(name = "Change Feed API")
+public class ChangeController {
+
+    private final ChangeEventService changeEventService;
+
+    @Operation(summary = "Get product and category changes after the cursor, waiting up to waitMs when there are none")
+    @GetMapping
+    public CompletableFuture<ResponseEntity<ChangeFeedDto>> findChanges(@RequestParam(defaultValue = "0") Long since,
+                                                                        @RequestParam(defaultValue = "100") Integer limit,
+                                                                        @RequestParam(defaultValue = "0") Long waitMs) {
+        return changeEventService.poll(since, limit, waitMs).thenApply(ResponseEntity::ok);
+    }
+}
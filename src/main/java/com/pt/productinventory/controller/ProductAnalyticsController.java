@@ -0,0 +1,45 @@
+package com.pt.productinventory.controller;
+
+import com.pt.productinventory.model.dto.ProductColumnsDto;
+import com.pt.productinventory.model.dto.ProductStatsDto;
+import com.pt.productinventory.model.enums.ColumnSortField;
+import com.pt.productinventory.model.enums.SortDirection;
+import com.pt.productinventory.service.ProductAnalyticsService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.AllArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/v1/products/analytics")
+@ConditionalOnProperty(name = "inventory.analytics.enabled", havingValue = "true")
+@AllArgsConstructor
+@Tag(name = "Product Analytics API")
+public class ProductAnalyticsController {
+
+    private final ProductAnalyticsService productAnalyticsService;
+
+    @Operation(summary = "Get product count, quantity, price and stock value aggregates from the in-memory snapshot")
+    @GetMapping("/stats")
+    public ResponseEntity<ProductStatsDto> findStats(@RequestParam(required = false) Double minPrice,
+                                                     @RequestParam(required = false) Double maxPrice,
+                                                     @RequestParam(required = false) List<Long> categoryIds) {
+        return ResponseEntity.ok(productAnalyticsService.findStats(minPrice, maxPrice, categoryIds));
+    }
+
+    @Operation(summary = "Get product ids, prices, quantities and categories as columns from the in-memory snapshot")
+    @GetMapping("/columns")
+    public ResponseEntity<ProductColumnsDto> findColumns(@RequestParam(required = false) Double minPrice,
+                                                         @RequestParam(required = false) Double maxPrice,
+                                                         @RequestParam(required = false) List<Long> categoryIds,
+                                                         @RequestParam(defaultValue = "ID") ColumnSortField sortBy,
+                                                         @RequestParam(defaultValue = "ASC") SortDirection sortDirection,
+                                                         @RequestParam(defaultValue = "1000") Integer limit) {
+        return ResponseEntity.ok(productAnalyticsService.findColumns(minPrice, maxPrice, categoryIds,
+                                                                     sortBy, sortDirection, limit));
+    }
+}
@@ -1,19 +1,38 @@
 package com.pt.productinventory.controller;
 
+import com.pt.productinventory.model.ETagged;
+import com.pt.productinventory.model.ProductFilter;
+import com.pt.productinventory.model.enums.BulkFormat;
 import com.pt.productinventory.model.enums.SortDirection;
+import com.pt.productinventory.model.dto.BatchResponseDto;
+import com.pt.productinventory.model.dto.BulkResponseDto;
+import com.pt.productinventory.model.dto.BulkUpdateResponseDto;
+import com.pt.productinventory.model.dto.ProductJson;
 import com.pt.productinventory.model.dto.ProductRequestDto;
 import com.pt.productinventory.model.dto.ProductResponseDto;
+import com.pt.productinventory.model.dto.ProductSearchResponseDto;
 import com.pt.productinventory.model.dto.ProductUpdateDto;
+import com.pt.productinventory.model.dto.StockResponseDto;
+import com.pt.productinventory.model.dto.WindowResponseDto;
+import com.pt.productinventory.service.ProductBulkService;
 import com.pt.productinventory.service.ProductService;
+import com.pt.productinventory.service.StockService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.AllArgsConstructor;
 import org.springframework.data.domain.Page;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.InputStream;
 import java.util.List;
+import java.util.Objects;
 
 @RestController
 @RequestMapping("/api/v1/products")
@@ -21,7 +40,11 @@ import java.util.List;
 @Tag(name = "Product Management API")
 public class ProductController {
 
+    private static final MediaType TEXT_CSV = MediaType.parseMediaType("text/csv");
+
     private final ProductService productService;
+    private final ProductBulkService productBulkService;
+    private final StockService stockService;
 
     @Operation(summary = "Create new product")
     @PostMapping
@@ -29,29 +52,127 @@ public class ProductController {
         return ResponseEntity.ok(productService.save(productRequestDto));
     }
 
+    @Operation(summary = "Create products in bulk from a JSON array or CSV with header row")
+    @PostMapping(value = "/bulk", consumes = {MediaType.APPLICATION_JSON_VALUE, "text/csv"})
+    public ResponseEntity<BulkResponseDto> saveAll(@RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+                                                   InputStream inputStream) {
+        BulkFormat bulkFormat = TEXT_CSV.isCompatibleWith(contentType) ? BulkFormat.CSV : BulkFormat.JSON;
+
+        return ResponseEntity.ok(productBulkService.saveAll(inputStream, bulkFormat));
+    }
+
+    @Operation(summary = "Change the price of every product in a category by a percentage")
+    @PutMapping("/bulk/price")
+    public ResponseEntity<BulkUpdateResponseDto> repriceCategory(@RequestParam Long categoryId,
+                                                                 @RequestParam Double percentage) {
+        return ResponseEntity.ok(productBulkService.repriceCategory(categoryId, percentage));
+    }
+
+    @Operation(summary = "Assign products to a category in bulk")
+    @PutMapping("/bulk/category/{categoryId}")
+    public ResponseEntity<BulkUpdateResponseDto> assignCategory(@PathVariable("categoryId") Long categoryId,
+                                                                @RequestBody List<Long> productIds) {
+        return ResponseEntity.ok(productBulkService.assignCategory(categoryId, productIds));
+    }
+
+    @Operation(summary = "Delete all products matching the filter")
+    @DeleteMapping("/bulk")
+    public ResponseEntity<BulkUpdateResponseDto> deleteByFilter(@RequestParam(required = false) String name,
+                                                                @RequestParam(required = false) Double minPrice,
+                                                                @RequestParam(required = false) Double maxPrice) {
+        return ResponseEntity.ok(productBulkService.deleteByFilter(name, minPrice, maxPrice));
+    }
+
     @Operation(summary = "Get all products")
     @GetMapping
-    public ResponseEntity<List<ProductResponseDto>> findAll() {
+    public ResponseEntity<List<ProductJson>> findAll() {
         return ResponseEntity.ok(productService.findAll());
 
     }
 
+    @Operation(summary = "Export all products as newline delimited JSON")
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportAll() {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(productService::exportAll);
+    }
+
     @Operation(summary = "Get all products paginated")
     @GetMapping("/paginated")
-    public ResponseEntity<Page<ProductResponseDto>> findAllPageable(@RequestParam(defaultValue = "0") Integer pageNum,
-                                                                    @RequestParam(defaultValue = "10") Integer pageSize,
-                                                                    @RequestParam(defaultValue = "name") String sortBy,
-                                                                    @RequestParam(defaultValue = "ASC") SortDirection sortDirection,
-                                                                    @RequestParam(required = false) String name,
-                                                                    @RequestParam(required = false) Double minPrice,
-                                                                    @RequestParam(required = false) Double maxPrice) {
+    public ResponseEntity<Page<ProductJson>> findAllPageable(@RequestParam(defaultValue = "0") Integer pageNum,
+                                                             @RequestParam(defaultValue = "10") Integer pageSize,
+                                                             @RequestParam(defaultValue = "name") String sortBy,
+                                                             @RequestParam(defaultValue = "ASC") SortDirection sortDirection,
+                                                             @RequestParam(required = false) String name,
+                                                             @RequestParam(required = false) Double minPrice,
+                                                             @RequestParam(required = false) Double maxPrice) {
         return ResponseEntity.ok(productService.findAllPageable(pageNum, pageSize, sortBy, sortDirection, name, minPrice, maxPrice));
     }
 
+    @Operation(summary = "Search products with category counts and a price histogram")
+    @GetMapping("/search")
+    public ResponseEntity<ProductSearchResponseDto> search(@RequestParam(defaultValue = "0") Integer pageNum,
+                                                           @RequestParam(defaultValue = "10") Integer pageSize,
+                                                           @RequestParam(defaultValue = "name") List<String> sortBy,
+                                                           @RequestParam(defaultValue = "ASC") List<SortDirection> sortDirection,
+                                                           @RequestParam(required = false) String name,
+                                                           @RequestParam(required = false) Double minPrice,
+                                                           @RequestParam(required = false) Double maxPrice,
+                                                           @RequestParam(required = false) List<Long> categoryIds,
+                                                           @RequestParam(required = false) Integer minQuantity,
+                                                           @RequestParam(defaultValue = "10") Double priceBucketWidth) {
+        ProductFilter productFilter = ProductFilter.builder()
+                .name(name)
+                .minPrice(minPrice)
+                .maxPrice(maxPrice)
+                .categoryIds(categoryIds)
+                .minQuantity(minQuantity)
+                .build();
+
+        return ResponseEntity.ok(productService.search(productFilter, pageNum, pageSize, sortBy, sortDirection, priceBucketWidth));
+    }
+
+    @Operation(summary = "Get all products with keyset pagination")
+    @GetMapping("/scroll")
+    public ResponseEntity<WindowResponseDto<ProductResponseDto>> findAllScrollable(@RequestParam(defaultValue = "10") Integer pageSize,
+                                                                                   @RequestParam(defaultValue = "name") String sortBy,
+                                                                                   @RequestParam(defaultValue = "ASC") SortDirection sortDirection,
+                                                                                   @RequestParam(required = false) String name,
+                                                                                   @RequestParam(required = false) Double minPrice,
+                                                                                   @RequestParam(required = false) Double maxPrice,
+                                                                                   @RequestParam(required = false) String continuationToken,
+                                                                                   @RequestParam(defaultValue = "false") boolean includeTotal) {
+        return ResponseEntity.ok(productService.findAllScrollable(pageSize, sortBy, sortDirection, name, minPrice, maxPrice,
+                                                                  continuationToken, includeTotal));
+    }
+
     @Operation(summary = "Get product by id")
     @GetMapping("/{id}")
-    public ResponseEntity<ProductResponseDto> findById(@PathVariable("id") Long id) {
-        return ResponseEntity.ok(productService.findByIdResponseDto(id));
+    public ResponseEntity<ProductResponseDto> findById(@PathVariable("id") Long id, WebRequest webRequest) {
+        // only conditional requests need the tag before the body, plain reads take it from the loaded versions
+        if (Objects.nonNull(webRequest.getHeader(HttpHeaders.IF_NONE_MATCH))) {
+            String eTag = productService.findETag(id);
+            if (webRequest.checkNotModified(eTag)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build();
+            }
+        }
+
+        ETagged<ProductResponseDto> product = productService.findByIdWithETag(id);
+
+        return ResponseEntity.ok().eTag(product.eTag()).body(product.body());
+    }
+
+    @Operation(summary = "Get products by ids in request order, ids that don't exist are listed as missing")
+    @GetMapping("/batch")
+    public ResponseEntity<BatchResponseDto<ProductResponseDto>> findAllByIds(@RequestParam List<Long> ids) {
+        return ResponseEntity.ok(productService.findAllByIds(ids));
+    }
+
+    @Operation(summary = "Get products by ids sent in the body, for id lists too long for a query string")
+    @PostMapping("/batch")
+    public ResponseEntity<BatchResponseDto<ProductResponseDto>> findAllByIdsInBody(@RequestBody List<Long> ids) {
+        return ResponseEntity.ok(productService.findAllByIds(ids));
     }
 
     @Operation(summary = "Update product by id")
@@ -86,4 +207,25 @@ public class ProductController {
 
         return ResponseEntity.ok().build();
     }
+
+    @Operation(summary = "Reserve product stock")
+    @PostMapping("/{id}/stock/reserve")
+    public ResponseEntity<StockResponseDto> reserve(@PathVariable("id") Long id,
+                                                    @RequestParam Integer quantity) {
+        return ResponseEntity.ok(stockService.reserve(id, quantity));
+    }
+
+    @Operation(summary = "Release reserved product stock")
+    @PostMapping("/{id}/stock/release")
+    public ResponseEntity<StockResponseDto> release(@PathVariable("id") Long id,
+                                                    @RequestParam Integer quantity) {
+        return ResponseEntity.ok(stockService.release(id, quantity));
+    }
+
+    @Operation(summary = "Adjust product stock by delta")
+    @PostMapping("/{id}/stock/adjust")
+    public ResponseEntity<StockResponseDto> adjust(@PathVariable("id") Long id,
+                                                   @RequestParam Integer delta) {
+        return ResponseEntity.ok(stockService.adjust(id, delta));
+    }
 }
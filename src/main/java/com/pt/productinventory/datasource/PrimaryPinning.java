@@ -0,0 +1,24 @@
+package com.pt.productinventory.datasource;
+
+/**
+ * Marks the current thread as pinned to the primary, read-only transactions then skip the replicas.
+ */
+public final class PrimaryPinning {
+
+    private static final ThreadLocal<Boolean> PINNED = new ThreadLocal<>();
+
+    private PrimaryPinning() {
+    }
+
+    public static void pin() {
+        PINNED.set(Boolean.TRUE);
+    }
+
+    public static void unpin() {
+        PINNED.remove();
+    }
+
+    public static boolean isPinned() {
+        return Boolean.TRUE.equals(PINNED.get());
+    }
+}
@@ -0,0 +1,74 @@
+package com.pt.productinventory.datasource;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.AllArgsConstructor;
+import org.springframework.http.HttpMethod;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Pins requests to the primary for a while after the same client wrote, so it reads its own writes even
+ * when the replicas lag. The deadline travels in a cookie, the service itself stays stateless.
+ */
+@AllArgsConstructor
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    static final String COOKIE_NAME = "inventory-primary-until";
+    private static final Set<String> READ_METHODS = Set.of(HttpMethod.GET.name(), HttpMethod.HEAD.name(), HttpMethod.OPTIONS.name());
+
+    private final long stickyPrimaryMs;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        long now = System.currentTimeMillis();
+        boolean write = !READ_METHODS.contains(request.getMethod());
+        if (write) {
+            // set before the chain runs, afterwards the response may already be committed
+            Cookie cookie = new Cookie(COOKIE_NAME, Long.toString(now + stickyPrimaryMs));
+            cookie.setPath("/");
+            cookie.setHttpOnly(true);
+            cookie.setMaxAge((int) Math.ceilDiv(stickyPrimaryMs, 1000));
+            response.addCookie(cookie);
+        }
+
+        if (!write && pinnedUntil(request) <= now) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        PrimaryPinning.pin();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            PrimaryPinning.unpin();
+        }
+    }
+
+    private long pinnedUntil(HttpServletRequest request) {
+        if (Objects.isNull(request.getCookies())) {
+            return 0;
+        }
+
+        return Arrays.stream(request.getCookies())
+                .filter(cookie -> COOKIE_NAME.equals(cookie.getName()))
+                .mapToLong(cookie -> {
+                    try {
+                        return Long.parseLong(cookie.getValue());
+                    } catch (NumberFormatException e) {
+                        return 0;
+                    }
+                })
+                .max()
+                .orElse(0);
+    }
+}
@@ -0,0 +1,18 @@
+package com.pt.productinventory.datasource;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "inventory.datasource")
+public class ReplicaDataSourceProperties {
+    private long stickyPrimaryMs = 5000;
+    private int replicaPoolSize = 10;
+    private List<DataSourceProperties> replicas = new ArrayList<>();
+}
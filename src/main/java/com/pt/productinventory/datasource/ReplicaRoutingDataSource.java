@@ -0,0 +1,59 @@
+package com.pt.productinventory.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Target for read-only connections: spreads them round robin over the replica pools, or returns the primary
+ * while the current request is pinned to it after a write. Every routed connection is counted per pool.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements DisposableBean {
+
+    static final String PRIMARY = "primary";
+
+    private final List<HikariDataSource> replicas;
+    private final Map<String, Counter> routedConnections = new HashMap<>();
+    private final AtomicInteger nextReplica = new AtomicInteger();
+
+    public ReplicaRoutingDataSource(DataSource primaryDataSource,
+                                    List<HikariDataSource> replicas,
+                                    MeterRegistry meterRegistry) {
+        this.replicas = List.copyOf(replicas);
+
+        Map<Object, Object> targetDataSources = new HashMap<>();
+        targetDataSources.put(PRIMARY, primaryDataSource);
+        replicas.forEach(replica -> targetDataSources.put(replica.getPoolName(), replica));
+        targetDataSources.keySet().forEach(pool -> routedConnections.put((String) pool, Counter
+                .builder("inventory.datasource.read.connections")
+                .description("Read-only connections handed out per pool")
+                .tag("pool", (String) pool)
+                .register(meterRegistry)));
+
+        setTargetDataSources(targetDataSources);
+        setDefaultTargetDataSource(primaryDataSource);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        String pool = PrimaryPinning.isPinned() || replicas.isEmpty()
+                      ? PRIMARY
+                      : replicas.get(Math.floorMod(nextReplica.getAndIncrement(), replicas.size())).getPoolName();
+        routedConnections.get(pool).increment();
+
+        return pool;
+    }
+
+    @Override
+    public void destroy() {
+        replicas.forEach(HikariDataSource::close);
+    }
+}
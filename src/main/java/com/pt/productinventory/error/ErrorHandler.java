@@ -1,9 +1,15 @@
 package com.pt.productinventory.error;
 
 import com.pt.productinventory.error.exceptions.IllegalParameterException;
+import com.pt.productinventory.error.exceptions.InsufficientStockException;
 import com.pt.productinventory.error.exceptions.ObjectNotFoundException;
+import jakarta.persistence.OptimisticLockException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.ConstraintViolationException;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -13,8 +19,11 @@ import org.springframework.web.bind.annotation.RestControllerAdvice;
 import java.time.LocalDateTime;
 
 @RestControllerAdvice
+@Slf4j
 public class ErrorHandler {
 
+    private static final String UNIQUE_CATEGORY_NAME = "uq_category_name";
+
     @ResponseBody
     @ExceptionHandler({ConstraintViolationException.class, IllegalParameterException.class})
     public ResponseEntity<HttpResponse> handleBadRequestExceptions(Exception e, HttpServletRequest request) {
@@ -27,6 +36,43 @@ public class ErrorHandler {
         return createHttpResponse(HttpStatus.NOT_FOUND, e.getMessage(), request.getRequestURI());
     }
 
+    @ResponseBody
+    @ExceptionHandler(InsufficientStockException.class)
+    public ResponseEntity<HttpResponse> handleConflictException(InsufficientStockException e, HttpServletRequest request) {
+        return createHttpResponse(HttpStatus.CONFLICT, e.getMessage(), request.getRequestURI());
+    }
+
+    @ResponseBody
+    @ExceptionHandler({OptimisticLockingFailureException.class, OptimisticLockException.class})
+    public ResponseEntity<HttpResponse> handleOptimisticLockException(Exception e, HttpServletRequest request) {
+        return createHttpResponse(HttpStatus.CONFLICT, "Resource was changed by another request, please retry",
+                                  request.getRequestURI());
+    }
+
+    @ResponseBody
+    @ExceptionHandler(DataIntegrityViolationException.class)
+    public ResponseEntity<HttpResponse> handleDataIntegrityViolationException(DataIntegrityViolationException e,
+                                                                              HttpServletRequest request) {
+        // the database message names tables and values, it is only logged
+        if (violatesConstraint(e, UNIQUE_CATEGORY_NAME)) {
+            log.warn("Duplicate category name rejected: {}", e.getMostSpecificCause().getMessage());
+            return createHttpResponse(HttpStatus.CONFLICT, "Category with this name already exists", request.getRequestURI());
+        }
+
+        log.error("Error: Data integrity violation on {}", request.getRequestURI(), e);
+        return createHttpResponse(HttpStatus.BAD_REQUEST, "Request violates a data constraint", request.getRequestURI());
+    }
+
+    private boolean violatesConstraint(DataIntegrityViolationException e, String constraintName) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof org.hibernate.exception.ConstraintViolationException violation) {
+                return StringUtils.containsIgnoreCase(violation.getConstraintName(), constraintName);
+            }
+        }
+
+        return false;
+    }
+
     private ResponseEntity<HttpResponse> createHttpResponse(HttpStatus httpStatus, String message, String path) {
 
         return new ResponseEntity<>(new HttpResponse(
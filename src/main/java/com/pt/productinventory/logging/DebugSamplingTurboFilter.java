@@ -0,0 +1,36 @@
+package com.pt.productinventory.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import lombok.Getter;
+import lombok.Setter;
+import org.slf4j.Marker;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Lets through one in {@code sampleRate} DEBUG and TRACE events of loggers under {@code loggerPrefix}, so debug
+ * traces can stay enabled under load. Runs before the level check, so it only reads the effective level and
+ * never formats the message.
+ */
+@Getter
+@Setter
+public class DebugSamplingTurboFilter extends TurboFilter {
+
+    private int sampleRate = 100;
+    private String loggerPrefix = "com.pt.productinventory";
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+        if (level.isGreaterOrEqual(Level.INFO)
+            || sampleRate <= 1
+            || !logger.getName().startsWith(loggerPrefix)
+            || !level.isGreaterOrEqual(logger.getEffectiveLevel())) {
+            return FilterReply.NEUTRAL;
+        }
+
+        return ThreadLocalRandom.current().nextInt(sampleRate) == 0 ? FilterReply.NEUTRAL : FilterReply.DENY;
+    }
+}
@@ -0,0 +1,97 @@
+package com.pt.productinventory.mapper;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.pt.productinventory.model.Category;
+import com.pt.productinventory.model.Product;
+import com.pt.productinventory.model.dto.ProductJson;
+import com.pt.productinventory.model.dto.ProductResponseDto;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.util.Objects;
+
+/**
+ * Writes the {@link ProductResponseDto} JSON of a product straight from the entity with the streaming
+ * generator, without building the DTO or reflecting over it. Encoded products are kept per product and
+ * category version, so unchanged products are copied into responses as bytes.
+ */
+@Component
+public class ProductJsonMapper {
+
+    private static final SerializedString NAME = new SerializedString("name");
+    private static final SerializedString DESCRIPTION = new SerializedString("description");
+    private static final SerializedString PRICE = new SerializedString("price");
+    private static final SerializedString QUANTITY = new SerializedString("quantity");
+    private static final SerializedString CATEGORY = new SerializedString("category");
+
+    private final JsonFactory jsonFactory;
+    private final Cache<ProductJsonKey, ProductJson> encodedProducts;
+
+    public ProductJsonMapper(ObjectMapper objectMapper,
+                             @Value("${inventory.json.cache-size:100000}") long cacheSize) {
+        this.jsonFactory = objectMapper.getFactory();
+        this.encodedProducts = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .build();
+    }
+
+    public ProductJson toProductJson(Product product) {
+        if (Objects.isNull(product.getId())) {
+            return encode(product);
+        }
+
+        // any write bumps one of the versions, older entries are never hit again and age out
+        Category category = product.getCategory();
+        ProductJsonKey key = new ProductJsonKey(product.getId(),
+                                                product.getVersion(),
+                                                Objects.isNull(category) ? null : category.getId(),
+                                                Objects.isNull(category) ? null : category.getVersion());
+
+        return encodedProducts.get(key, ignored -> encode(product));
+    }
+
+    ProductJson encode(Product product) {
+        boolean isCategoryEmpty =
+                Objects.isNull(product.getCategory()) || StringUtils.isBlank(product.getCategory().getName());
+
+        StringWriter writer = new StringWriter(192);
+        try (JsonGenerator generator = jsonFactory.createGenerator(writer)) {
+            generator.writeStartObject();
+            generator.writeFieldName(NAME);
+            generator.writeString(product.getName());
+            generator.writeFieldName(DESCRIPTION);
+            generator.writeString(product.getDescription());
+            generator.writeFieldName(PRICE);
+            if (Objects.isNull(product.getPrice())) {
+                generator.writeNull();
+            } else {
+                generator.writeNumber(product.getPrice());
+            }
+            generator.writeFieldName(QUANTITY);
+            if (Objects.isNull(product.getQuantity())) {
+                generator.writeNull();
+            } else {
+                generator.writeNumber(product.getQuantity());
+            }
+            generator.writeFieldName(CATEGORY);
+            generator.writeString(isCategoryEmpty ? null : product.getCategory().getName());
+            generator.writeEndObject();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        return new ProductJson(new SerializedString(writer.toString()));
+    }
+
+    private record ProductJsonKey(Long id, Long version, Long categoryId, Long categoryVersion) {
+    }
+}
@@ -0,0 +1,118 @@
+package com.pt.productinventory.mapper;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pt.productinventory.error.exceptions.IllegalParameterException;
+import com.pt.productinventory.model.dto.WindowResponseDto;
+import io.micrometer.common.util.StringUtils;
+import lombok.AllArgsConstructor;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ReflectionUtils;
+
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Converts keyset {@link Window}s to responses and back, the continuation token is the
+ * base64 encoded JSON of the sort and the last row's sort keys. A token is only accepted
+ * with the sort it was issued for.
+ */
+@Component
+@AllArgsConstructor
+public class WindowMapper {
+
+    private final ObjectMapper objectMapper;
+
+    public <T, R> WindowResponseDto<R> toWindowResponseDto(Window<T> window,
+                                                           Function<T, R> mapper,
+                                                           Long totalElements,
+                                                           Sort keysetSort) {
+        String continuationToken = window.hasNext() && !window.isEmpty()
+                                   ? toContinuationToken(window.positionAt(window.size() - 1), keysetSort)
+                                   : null;
+
+        return WindowResponseDto.<R>builder()
+                .content(window.map(mapper).getContent())
+                .hasNext(window.hasNext())
+                .continuationToken(continuationToken)
+                .totalElements(totalElements)
+                .build();
+    }
+
+    public KeysetScrollPosition toScrollPosition(String continuationToken, Class<?> clazz, Sort keysetSort) {
+        if (StringUtils.isBlank(continuationToken)) {
+            return ScrollPosition.keyset();
+        }
+
+        ContinuationToken token;
+        try {
+            token = objectMapper.readValue(Base64.getUrlDecoder().decode(continuationToken), ContinuationToken.class);
+        } catch (IOException | IllegalArgumentException e) {
+            throw new IllegalParameterException("Continuation token is not valid: " + continuationToken, e);
+        }
+
+        // a token of another sort would seek on keys the query doesn't order by
+        List<String> properties = keysetSort.stream().map(Sort.Order::getProperty).toList();
+        if (!toSortKey(keysetSort).equals(token.sort())
+                || Objects.isNull(token.keys())
+                || !token.keys().keySet().equals(Set.copyOf(properties))
+                || token.keys().containsValue(null)) {
+            throw new IllegalParameterException("Continuation token doesn't match the sort: " + continuationToken);
+        }
+
+        try {
+            Map<String, Object> typedKeys = new LinkedHashMap<>();
+            properties.forEach(key -> typedKeys.put(key, objectMapper.convertValue(token.keys().get(key), fieldType(clazz, key))));
+
+            return ScrollPosition.forward(typedKeys);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalParameterException("Continuation token is not valid: " + continuationToken, e);
+        }
+    }
+
+    private String toContinuationToken(ScrollPosition scrollPosition, Sort keysetSort) {
+        if (!(scrollPosition instanceof KeysetScrollPosition keysetScrollPosition)) {
+            throw new IllegalStateException("Only keyset scroll positions can be encoded");
+        }
+
+        try {
+            ContinuationToken token = new ContinuationToken(toSortKey(keysetSort), keysetScrollPosition.getKeys());
+            return Base64.getUrlEncoder()
+                    .withoutPadding()
+                    .encodeToString(objectMapper.writeValueAsBytes(token));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Continuation token could not be created", e);
+        }
+    }
+
+    private static String toSortKey(Sort sort) {
+        return sort.stream()
+                .map(order -> order.getProperty() + ":" + order.getDirection())
+                .collect(Collectors.joining(","));
+    }
+
+    private Class<?> fieldType(Class<?> clazz, String fieldName) {
+        Field field = ReflectionUtils.findField(clazz, fieldName);
+        if (Objects.isNull(field)) {
+            throw new IllegalParameterException("No field found with name: " + fieldName);
+        }
+
+        return field.getType();
+    }
+
+    // not private, Jackson reads and writes it
+    record ContinuationToken(String sort, Map<String, Object> keys) {
+    }
+}
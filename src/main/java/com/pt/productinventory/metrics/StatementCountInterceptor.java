@@ -0,0 +1,54 @@
+package com.pt.productinventory.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.Objects;
+
+/**
+ * Records the number of statements each request issues in {@code inventory.request.statements} and warns
+ * about requests above the threshold, which usually means a lazy association is loaded row by row (N+1).
+ */
+@Slf4j
+@AllArgsConstructor
+public class StatementCountInterceptor implements AsyncHandlerInterceptor {
+
+    private final MeterRegistry meterRegistry;
+    private final int warnThreshold;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        StatementCounter.start();
+
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        // the request thread is released, the async dispatch starts a new count
+        StatementCounter.stop();
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        int statements = StatementCounter.stop();
+        String uri = Objects.toString(request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE), "UNKNOWN");
+
+        DistributionSummary.builder("inventory.request.statements")
+                .description("SQL statements issued per request")
+                .baseUnit("statements")
+                .tags("method", request.getMethod(), "uri", uri)
+                .register(meterRegistry)
+                .record(statements);
+
+        if (statements > warnThreshold) {
+            log.warn("Warning: {} {} issued {} statements, possible N+1 select", request.getMethod(), uri, statements);
+        }
+    }
+}
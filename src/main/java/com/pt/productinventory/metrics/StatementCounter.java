@@ -0,0 +1,36 @@
+package com.pt.productinventory.metrics;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Counts the SQL statements Hibernate prepares on the current thread between {@link #start()} and
+ * {@link #stop()}. Statements outside of a started window, e.g. from scheduled jobs, are not counted.
+ */
+public class StatementCounter implements StatementInspector {
+
+    private static final ThreadLocal<AtomicInteger> CURRENT = new ThreadLocal<>();
+
+    public static void start() {
+        CURRENT.set(new AtomicInteger());
+    }
+
+    public static int stop() {
+        AtomicInteger count = CURRENT.get();
+        CURRENT.remove();
+
+        return Objects.isNull(count) ? 0 : count.get();
+    }
+
+    @Override
+    public String inspect(String sql) {
+        AtomicInteger count = CURRENT.get();
+        if (Objects.nonNull(count)) {
+            count.incrementAndGet();
+        }
+
+        return sql;
+    }
+}
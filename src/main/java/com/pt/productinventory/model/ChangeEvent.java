@@ -0,0 +1,39 @@
+package com.pt.productinventory.model;
+
+import com.pt.productinventory.model.enums.ChangeEntityType;
+import com.pt.productinventory.model.enums.ChangeOperation;
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.time.Instant;
+
+@Entity(name = "change_event")
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@ToString
+@EqualsAndHashCode
+public class ChangeEvent {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "change_event_seq")
+    @SequenceGenerator(name = "change_event_seq", sequenceName = "change_event_seq", allocationSize = 50)
+    private Long id;
+    // null until the relay numbers the committed event
+    private Long feedPosition;
+    @Enumerated(EnumType.STRING)
+    @JdbcTypeCode(SqlTypes.VARCHAR)
+    @Column(nullable = false)
+    private ChangeEntityType entityType;
+    @Column(nullable = false)
+    private Long entityId;
+    @Enumerated(EnumType.STRING)
+    @JdbcTypeCode(SqlTypes.VARCHAR)
+    @Column(nullable = false)
+    private ChangeOperation operation;
+    @Column(nullable = false)
+    private Instant createdAt;
+}
@@ -0,0 +1,13 @@
+package com.pt.productinventory.model;
+
+import com.pt.productinventory.model.enums.ChangeEntityType;
+import com.pt.productinventory.model.enums.ChangeOperation;
+
+import java.util.List;
+
+/**
+ * In-process counterpart of the recorded change events, published in the writing transaction so listeners
+ * bound to its commit react to writes of this instance without polling the change feed.
+ */
+public record ChangeNotification(ChangeEntityType entityType, List<Long> entityIds, ChangeOperation operation) {
+}
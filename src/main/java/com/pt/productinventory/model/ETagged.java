@@ -0,0 +1,7 @@
+package com.pt.productinventory.model;
+
+/**
+ * Response body together with the entity tag of the versions it was built from.
+ */
+public record ETagged<T>(String eTag, T body) {
+}
@@ -1,5 +1,6 @@
 package com.pt.productinventory.model;
 
+import com.pt.productinventory.search.ProductIndexListener;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.NotNull;
@@ -13,9 +14,11 @@ import lombok.*;
 @Builder
 @ToString
 @EqualsAndHashCode(callSuper = false)
+@EntityListeners(ProductIndexListener.class)
 public class Product extends LockVersion {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "product_seq")
+    @SequenceGenerator(name = "product_seq", sequenceName = "product_seq", allocationSize = 50)
     private Long id;
     @NotEmpty
     private String name;
@@ -25,7 +28,9 @@ public class Product extends LockVersion {
     private Double price;
     @NotNull
     private Integer quantity;
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "category_id")
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     private Category category;
 }
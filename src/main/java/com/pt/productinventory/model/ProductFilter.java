@@ -2,13 +2,17 @@ package com.pt.productinventory.model;
 
 import lombok.*;
 
+import java.util.List;
+
 @Getter
 @Setter
 @AllArgsConstructor
 @NoArgsConstructor
-@Builder
+@Builder(toBuilder = true)
 public class ProductFilter {
     private String name;
     private Double minPrice;
     private Double maxPrice;
+    private List<Long> categoryIds;
+    private Integer minQuantity;
 }
@@ -0,0 +1,4 @@
+package com.pt.productinventory.model;
+
+public record ProductName(Long id, String name) {
+}
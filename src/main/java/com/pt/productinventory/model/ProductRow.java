@@ -0,0 +1,4 @@
+package com.pt.productinventory.model;
+
+public record ProductRow(Long id, Double price, Integer quantity, Long categoryId) {
+}
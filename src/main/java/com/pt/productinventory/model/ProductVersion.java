@@ -0,0 +1,4 @@
+package com.pt.productinventory.model;
+
+public record ProductVersion(Long id, Long version) {
+}
@@ -0,0 +1,4 @@
+package com.pt.productinventory.model;
+
+public record StockLevel(Integer quantity, Long version, String categoryName) {
+}
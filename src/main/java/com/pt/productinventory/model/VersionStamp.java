@@ -0,0 +1,57 @@
+package com.pt.productinventory.model;
+
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.Objects;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Versions a single resource response is built from. Product responses carry the category name, category
+ * responses carry their products, so the related rows take part in the entity tag as well.
+ */
+public record VersionStamp(Long version, Long relatedVersion, String relatedDigest) {
+
+    private static final int DIGEST_BYTES = 16;
+
+    public VersionStamp(Long version, Long relatedVersion) {
+        this(version, relatedVersion, null);
+    }
+
+    /**
+     * Stamp of a resource carrying several related products. Sums or counts of their ids and versions can
+     * collide after a move between categories, so every (id, version) pair goes into a digest instead.
+     */
+    public static VersionStamp withRelated(Long version, Collection<ProductVersion> relatedVersions) {
+        MessageDigest messageDigest;
+        try {
+            messageDigest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+
+        ByteBuffer pair = ByteBuffer.allocate(2 * Long.BYTES);
+        relatedVersions.stream()
+                .sorted(Comparator.comparing(ProductVersion::id))
+                .forEach(productVersion -> {
+                    pair.clear();
+                    pair.putLong(productVersion.id()).putLong(productVersion.version());
+                    messageDigest.update(pair.array());
+                });
+        byte[] digest = messageDigest.digest();
+
+        return new VersionStamp(version, null, HexFormat.of().formatHex(digest, 0, DIGEST_BYTES));
+    }
+
+    public String toETag() {
+        String eTag = Stream.of(version, relatedVersion)
+                .map(value -> Objects.toString(value, "0"))
+                .collect(Collectors.joining("-"));
+
+        return Objects.isNull(relatedDigest) ? eTag : eTag + "-" + relatedDigest;
+    }
+}
@@ -0,0 +1,15 @@
+package com.pt.productinventory.model.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class BatchResponseDto<T> {
+    private List<T> content;
+    private List<Long> missingIds;
+}
@@ -0,0 +1,16 @@
+package com.pt.productinventory.model.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class BulkResponseDto {
+    private Long received;
+    private Long inserted;
+    private List<BulkRowErrorDto> failures;
+}
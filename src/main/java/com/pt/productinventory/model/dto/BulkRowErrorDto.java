@@ -0,0 +1,13 @@
+package com.pt.productinventory.model.dto;
+
+import lombok.*;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class BulkRowErrorDto {
+    private Long rowNumber;
+    private String message;
+}
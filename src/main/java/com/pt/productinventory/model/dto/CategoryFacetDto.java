@@ -0,0 +1,14 @@
+package com.pt.productinventory.model.dto;
+
+import lombok.*;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class CategoryFacetDto {
+    private Long id;
+    private String name;
+    private Long productCount;
+}
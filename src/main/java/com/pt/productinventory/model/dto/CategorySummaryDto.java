@@ -0,0 +1,19 @@
+package com.pt.productinventory.model.dto;
+
+import lombok.*;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class CategorySummaryDto {
+    private Long id;
+    private String name;
+    private Long productCount;
+    private Long totalQuantity;
+    private Double minPrice;
+    private Double maxPrice;
+    private Double avgPrice;
+    private Double totalStockValue;
+}
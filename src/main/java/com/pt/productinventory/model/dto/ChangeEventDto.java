@@ -0,0 +1,20 @@
+package com.pt.productinventory.model.dto;
+
+import com.pt.productinventory.model.enums.ChangeEntityType;
+import com.pt.productinventory.model.enums.ChangeOperation;
+import lombok.*;
+
+import java.time.Instant;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class ChangeEventDto {
+    private Long position;
+    private ChangeEntityType entityType;
+    private Long entityId;
+    private ChangeOperation operation;
+    private Instant createdAt;
+}
@@ -0,0 +1,15 @@
+package com.pt.productinventory.model.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class ChangeFeedDto {
+    private List<ChangeEventDto> events;
+    private Long nextCursor;
+}
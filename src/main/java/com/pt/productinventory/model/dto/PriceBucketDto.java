@@ -0,0 +1,14 @@
+package com.pt.productinventory.model.dto;
+
+import lombok.*;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class PriceBucketDto {
+    private Double fromPrice;
+    private Double toPrice;
+    private Long productCount;
+}
@@ -0,0 +1,20 @@
+package com.pt.productinventory.model.dto;
+
+import lombok.*;
+
+/**
+ * Products as parallel arrays, row i is {@code ids[i]}, {@code prices[i]}, {@code quantities[i]} and category
+ * {@code categoryDictionary[categoryCodes[i]]}, which is null for products without a category.
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class ProductColumnsDto {
+    private long[] ids;
+    private double[] prices;
+    private int[] quantities;
+    private int[] categoryCodes;
+    private Long[] categoryDictionary;
+}
@@ -0,0 +1,32 @@
+package com.pt.productinventory.model.dto;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.type.WritableTypeId;
+import com.fasterxml.jackson.databind.JsonSerializable;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.jsontype.TypeSerializer;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.io.IOException;
+
+/**
+ * Pre-encoded {@link ProductResponseDto}, written into the response as raw JSON.
+ */
+@Schema(implementation = ProductResponseDto.class)
+public record ProductJson(SerializableString json) implements JsonSerializable {
+
+    @Override
+    public void serialize(JsonGenerator generator, SerializerProvider serializers) throws IOException {
+        generator.writeRawValue(json);
+    }
+
+    @Override
+    public void serializeWithType(JsonGenerator generator,
+                                  SerializerProvider serializers,
+                                  TypeSerializer typeSerializer) throws IOException {
+        WritableTypeId typeId = typeSerializer.writeTypePrefix(generator, typeSerializer.typeId(this, generator.asToken()));
+        generator.writeRawValue(json);
+        typeSerializer.writeTypeSuffix(generator, typeId);
+    }
+}
@@ -0,0 +1,19 @@
+package com.pt.productinventory.model.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class ProductSearchResponseDto {
+    private List<ProductJson> content;
+    private Integer pageNum;
+    private Integer pageSize;
+    private Long totalElements;
+    private List<CategoryFacetDto> categories;
+    private List<PriceBucketDto> priceHistogram;
+}
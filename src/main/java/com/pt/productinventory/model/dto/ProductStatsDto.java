@@ -0,0 +1,17 @@
+package com.pt.productinventory.model.dto;
+
+import lombok.*;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class ProductStatsDto {
+    private Long productCount;
+    private Long totalQuantity;
+    private Double minPrice;
+    private Double maxPrice;
+    private Double avgPrice;
+    private Double totalStockValue;
+}
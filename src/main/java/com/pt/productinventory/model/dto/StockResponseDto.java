@@ -0,0 +1,13 @@
+package com.pt.productinventory.model.dto;
+
+import lombok.*;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class StockResponseDto {
+    private Long productId;
+    private Integer quantity;
+}
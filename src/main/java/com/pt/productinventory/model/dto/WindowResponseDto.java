@@ -0,0 +1,17 @@
+package com.pt.productinventory.model.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class WindowResponseDto<T> {
+    private List<T> content;
+    private boolean hasNext;
+    private String continuationToken;
+    private Long totalElements;
+}
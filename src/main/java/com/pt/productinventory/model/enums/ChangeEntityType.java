@@ -0,0 +1,5 @@
+package com.pt.productinventory.model.enums;
+
+public enum ChangeEntityType {
+    PRODUCT, CATEGORY;
+}
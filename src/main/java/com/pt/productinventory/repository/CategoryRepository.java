@@ -1,18 +1,54 @@
 package com.pt.productinventory.repository;
 
 import com.pt.productinventory.model.Category;
+import com.pt.productinventory.model.dto.CategoryResponseDto;
+import com.pt.productinventory.model.dto.CategorySummaryDto;
 import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface CategoryRepository extends JpaRepository<Category, Long> {
+public interface CategoryRepository extends JpaRepository<Category, Long>, JpaSpecificationExecutor<Category> {
+    @EntityGraph(attributePaths = "products")
     Optional<Category> findByName(String name);
 
+    @EntityGraph(attributePaths = "products")
+    Optional<Category> findWithProductsById(Long id);
+
+    @EntityGraph(attributePaths = "products")
+    List<Category> findWithProductsByIdIn(Collection<Long> ids);
+
+    @Query("select new com.pt.productinventory.model.dto.CategoryResponseDto(c.name) from category c")
+    List<CategoryResponseDto> findAllSummaries();
+
+    @Query(value = "select new com.pt.productinventory.model.dto.CategoryResponseDto(c.name) from category c",
+            countQuery = "select count(c) from category c")
+    Page<CategoryResponseDto> findAllSummaries(Pageable pageable);
+
+    /**
+     * Aggregates the products of every category in one grouped query, categories without products are
+     * included with a zero count and no prices.
+     */
+    @Query("select new com.pt.productinventory.model.dto.CategorySummaryDto(c.id, c.name, count(p), " +
+            "coalesce(sum(p.quantity), 0L), min(p.price), max(p.price), avg(p.price), " +
+            "coalesce(sum(p.price * p.quantity), 0.0)) " +
+            "from category c left join c.products p group by c.id, c.name order by c.name")
+    List<CategorySummaryDto> findAllProductStats();
+
+    @Query("select c.version from category c where c.id = :id")
+    Optional<Long> findVersionById(@Param("id") Long id);
+
     @Override
     @Lock(value = LockModeType.OPTIMISTIC_FORCE_INCREMENT)
     <S extends Category> S save(S entity);
@@ -0,0 +1,55 @@
+package com.pt.productinventory.repository;
+
+import com.pt.productinventory.model.ChangeEvent;
+import com.pt.productinventory.model.dto.ChangeEventDto;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface ChangeEventRepository extends JpaRepository<ChangeEvent, Long> {
+
+    /**
+     * Returns numbered events after the cursor in feed order. The relay numbers committed events only, so a
+     * committed event never appears behind the cursor. Read on the primary, replica lag would let the cursor
+     * skip events.
+     */
+    @Transactional
+    @Query("select new com.pt.productinventory.model.dto.ChangeEventDto(e.feedPosition, e.entityType, e.entityId, e.operation, e.createdAt) " +
+            "from change_event e where e.feedPosition > :since order by e.feedPosition")
+    List<ChangeEventDto> findAfter(@Param("since") Long since, Limit limit);
+
+    /**
+     * Returns committed events the relay hasn't numbered yet, in id order.
+     */
+    @Query("select e from change_event e where e.feedPosition is null order by e.id")
+    List<ChangeEvent> findUnnumbered(Limit limit);
+
+    /**
+     * Reads the last feed position and locks the counter row until the transaction ends. Only the relay takes
+     * it, so relays of several instances number one after another.
+     */
+    @Query(value = "select last_position from change_feed_position where id = 1 for update", nativeQuery = true)
+    long lockLastPosition();
+
+    /**
+     * Takes {@code count} positions from the feed counter, after the numbered events are flushed.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query(value = "update change_feed_position set last_position = last_position + :count where id = 1", nativeQuery = true)
+    int advanceLastPosition(@Param("count") int count);
+
+    @Query(value = "select last_position from change_feed_position where id = 1", nativeQuery = true)
+    long findLastPosition();
+
+    @Modifying
+    @Query("delete from change_event e where e.createdAt < :before")
+    int deleteCreatedBefore(@Param("before") Instant before);
+}
@@ -1,17 +1,40 @@
 package com.pt.productinventory.repository;
 
+import com.pt.productinventory.model.Category;
 import com.pt.productinventory.model.Product;
+import com.pt.productinventory.model.ProductName;
+import com.pt.productinventory.model.ProductRow;
+import com.pt.productinventory.model.ProductVersion;
+import com.pt.productinventory.model.StockLevel;
+import com.pt.productinventory.model.VersionStamp;
 import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface ProductRepository extends JpaRepository<Product, Long>, JpaSpecificationExecutor<Product> {
 
+    int STREAM_FETCH_SIZE = 500;
+
     @Override
     @Lock(value = LockModeType.OPTIMISTIC_FORCE_INCREMENT)
     <S extends Product> S save(S entity);
@@ -19,4 +42,84 @@ public interface ProductRepository extends JpaRepository<Product, Long>, JpaSpec
     @Override
     @Lock(value = LockModeType.OPTIMISTIC_FORCE_INCREMENT)
     <S extends Product> List<S> saveAll(Iterable<S> entities);
+
+    @Override
+    @EntityGraph(attributePaths = "category")
+    List<Product> findAll();
+
+    @Override
+    @EntityGraph(attributePaths = "category")
+    Page<Product> findAll(Specification<Product> spec, Pageable pageable);
+
+    @Override
+    @EntityGraph(attributePaths = "category")
+    Optional<Product> findById(Long id);
+
+    @EntityGraph(attributePaths = "category")
+    List<Product> findWithCategoryByIdIn(Collection<Long> ids);
+
+    /**
+     * Forward-only scroll over all products, must be consumed inside a transaction and closed afterwards.
+     */
+    @Query("select p from product p left join fetch p.category order by p.id")
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + STREAM_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<Product> streamAll();
+
+    @Query("select new com.pt.productinventory.model.ProductName(p.id, p.name) from product p")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + STREAM_FETCH_SIZE))
+    Stream<ProductName> streamNames();
+
+    @Query("select new com.pt.productinventory.model.ProductName(p.id, p.name) from product p where p.id in :ids")
+    List<ProductName> findNamesByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("select new com.pt.productinventory.model.ProductRow(p.id, p.price, p.quantity, c.id) " +
+            "from product p left join p.category c order by p.id")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + STREAM_FETCH_SIZE))
+    Stream<ProductRow> streamRows();
+
+    @Query("select new com.pt.productinventory.model.ProductRow(p.id, p.price, p.quantity, c.id) " +
+            "from product p left join p.category c where p.id in :ids")
+    List<ProductRow> findRowsByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Applies the delta only when the resulting quantity stays non-negative, returns the number of updated rows.
+     */
+    @Modifying
+    @Query("update product p set p.quantity = p.quantity + :delta, p.version = p.version + 1 " +
+            "where p.id = :id and p.quantity + :delta >= 0")
+    int adjustQuantity(@Param("id") Long id, @Param("delta") int delta);
+
+    @Query("select p.id from product p where p.category.id = :categoryId and p.id > :afterId order by p.id")
+    List<Long> findIdsByCategoryId(@Param("categoryId") Long categoryId, @Param("afterId") Long afterId, Limit limit);
+
+    @Query("select new com.pt.productinventory.model.ProductVersion(p.id, p.version) from product p where p.category.id = :categoryId")
+    List<ProductVersion> findVersionsByCategoryId(@Param("categoryId") Long categoryId);
+
+    @Query("select new com.pt.productinventory.model.ProductVersion(p.id, p.version) from product p where p.id in :ids")
+    List<ProductVersion> findVersionsByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query("update product p set p.price = round(p.price * :factor, 2), p.version = p.version + 1 where p.id in :ids")
+    int repriceByIds(@Param("ids") Collection<Long> ids, @Param("factor") double factor);
+
+    @Modifying
+    @Query("update product p set p.category = :category, p.version = p.version + 1 where p.id in :ids")
+    int assignCategoryByIds(@Param("ids") Collection<Long> ids, @Param("category") Category category);
+
+    @Modifying
+    @Query("delete from product p where p.id in :ids")
+    int deleteByIds(@Param("ids") Collection<Long> ids);
+
+    // read on the primary, the in-memory stock counters are seeded from it
+    @Transactional
+    @Query("select new com.pt.productinventory.model.StockLevel(p.quantity, p.version, c.name) " +
+            "from product p left join p.category c where p.id = :id")
+    StockLevel findStockLevelById(@Param("id") Long id);
+
+    @Query("select new com.pt.productinventory.model.VersionStamp(p.version, c.version) " +
+            "from product p left join p.category c where p.id = :id")
+    Optional<VersionStamp> findVersionStampById(@Param("id") Long id);
 }
@@ -0,0 +1,127 @@
+package com.pt.productinventory.retry;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.OptimisticLockException;
+import lombok.extern.slf4j.Slf4j;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Retries {@link RetryOnConflict} methods with full jitter exponential backoff. It is ordered before the
+ * transaction interceptor so every attempt gets its own transaction, and leaves calls that join an outer
+ * transaction to the retry around that one. Conflicts are counted per entity in
+ * {@code inventory.optimistic.conflicts}, tagged with whether they were retried or given up on.
+ */
+@Aspect
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE - 1)
+@Slf4j
+public class OptimisticRetryAspect {
+
+    private final MeterRegistry meterRegistry;
+    private final int maxAttempts;
+    private final long initialBackoffMs;
+    private final long maxBackoffMs;
+    // keyed by entity and outcome, registering a counter on every conflict looks it up in the registry
+    private final ConcurrentMap<String, Counter> conflicts = new ConcurrentHashMap<>();
+
+    public OptimisticRetryAspect(MeterRegistry meterRegistry,
+                                 @Value("${inventory.retry.max-attempts:3}") int maxAttempts,
+                                 @Value("${inventory.retry.initial-backoff-ms:20}") long initialBackoffMs,
+                                 @Value("${inventory.retry.max-backoff-ms:200}") long maxBackoffMs) {
+        this.meterRegistry = meterRegistry;
+        this.maxAttempts = maxAttempts;
+        this.initialBackoffMs = initialBackoffMs;
+        this.maxBackoffMs = maxBackoffMs;
+    }
+
+    @Around("@annotation(com.pt.productinventory.retry.RetryOnConflict)")
+    public Object retryOnConflict(ProceedingJoinPoint joinPoint) throws Throwable {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return joinPoint.proceed();
+        }
+
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return joinPoint.proceed();
+            } catch (RuntimeException e) {
+                String entity = findConflictingEntity(e);
+                if (Objects.isNull(entity)) {
+                    throw e;
+                }
+
+                if (attempt >= maxAttempts) {
+                    count(entity, "exhausted");
+                    log.warn("Optimistic lock conflict on {} in {} after {} attempts",
+                             entity, joinPoint.getSignature().toShortString(), attempt);
+                    throw e;
+                }
+
+                long backoffMs = ThreadLocalRandom.current()
+                        .nextLong(Math.min(maxBackoffMs, initialBackoffMs << Math.min(attempt - 1, 20)) + 1);
+                log.debug("Optimistic lock conflict on {} in {}, retrying in {} ms",
+                          entity, joinPoint.getSignature().toShortString(), backoffMs);
+                try {
+                    Thread.sleep(backoffMs);
+                } catch (InterruptedException interrupted) {
+                    // the caller is shutting down or cancelled, it gets the conflict instead of another attempt
+                    Thread.currentThread().interrupt();
+                    count(entity, "interrupted");
+                    throw e;
+                }
+                count(entity, "retried");
+            }
+        }
+    }
+
+    /**
+     * Returns the simple name of the conflicting entity, "unknown" when the exception doesn't name it,
+     * or null when the exception is not an optimistic lock conflict.
+     */
+    private static String findConflictingEntity(Throwable throwable) {
+        for (Throwable cause = throwable; Objects.nonNull(cause); cause = cause.getCause()) {
+            if (cause instanceof ObjectOptimisticLockingFailureException lockingFailure) {
+                return Objects.nonNull(lockingFailure.getPersistentClassName())
+                       ? simpleName(lockingFailure.getPersistentClassName())
+                       : "unknown";
+            }
+            if (cause instanceof OptimisticLockException lockException) {
+                return Objects.nonNull(lockException.getEntity())
+                       ? lockException.getEntity().getClass().getSimpleName()
+                       : "unknown";
+            }
+            if (cause instanceof OptimisticLockingFailureException) {
+                return "unknown";
+            }
+        }
+
+        return null;
+    }
+
+    private static String simpleName(String className) {
+        return className.substring(className.lastIndexOf('.') + 1);
+    }
+
+    private void count(String entity, String outcome) {
+        conflicts.computeIfAbsent(entity + ":" + outcome, key -> Counter
+                        .builder("inventory.optimistic.conflicts")
+                        .description("Optimistic lock conflicts of service writes by entity")
+                        .tags("entity", entity, "outcome", outcome)
+                        .register(meterRegistry))
+                .increment();
+    }
+}
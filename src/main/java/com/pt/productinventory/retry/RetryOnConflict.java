@@ -0,0 +1,17 @@
+package com.pt.productinventory.retry;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Runs the annotated transactional method again, in a new transaction, when it fails on an optimistic lock
+ * conflict. The method must be safe to repeat, which holds for writes that read their entities again.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface RetryOnConflict {
+}
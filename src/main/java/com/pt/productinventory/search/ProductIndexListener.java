@@ -0,0 +1,36 @@
+package com.pt.productinventory.search;
+
+import com.pt.productinventory.model.Product;
+import com.pt.productinventory.util.TransactionCallbacks;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.AllArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+
+/**
+ * Keeps {@link ProductNameIndex} in sync with every product write, including cascades and bulk inserts.
+ * The index is looked up lazily because Hibernate creates listeners while the entity manager factory,
+ * which the index depends on, is still being built.
+ */
+@AllArgsConstructor
+public class ProductIndexListener {
+
+    private final ObjectProvider<ProductNameIndex> productNameIndex;
+
+    @PostPersist
+    @PostUpdate
+    public void onSave(Product product) {
+        Long id = product.getId();
+        String name = product.getName();
+
+        TransactionCallbacks.afterCommit(() -> productNameIndex.getObject().index(id, name));
+    }
+
+    @PostRemove
+    public void onRemove(Product product) {
+        Long id = product.getId();
+
+        TransactionCallbacks.afterCommit(() -> productNameIndex.getObject().remove(id));
+    }
+}
@@ -0,0 +1,206 @@
+package com.pt.productinventory.search;
+
+import com.pt.productinventory.model.ProductName;
+import com.pt.productinventory.model.dto.ChangeEventDto;
+import com.pt.productinventory.model.dto.ChangeFeedDto;
+import com.pt.productinventory.model.enums.ChangeEntityType;
+import com.pt.productinventory.repository.ChangeEventRepository;
+import com.pt.productinventory.repository.ProductRepository;
+import com.pt.productinventory.service.ChangeEventService;
+import com.pt.productinventory.util.IdBatches;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Trigram index over product names that resolves the substring name filter to candidate ids. Candidates
+ * are verified against the indexed name, so the result matches {@code like '%name%'} exactly.
+ * <p>
+ * Writes of this instance are applied right after their commit. The index also follows the change feed and
+ * reads changed names again, like {@link com.pt.productinventory.analytics.ProductColumnStore}, which brings in
+ * writes of other instances and corrects rows the startup build read before a concurrent write.
+ */
+@Component
+@Slf4j
+public class ProductNameIndex {
+
+    private static final int GRAM_LENGTH = 3;
+
+    private final ConcurrentMap<Long, String> names = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Long, Set<Long>> postings = new ConcurrentHashMap<>();
+    private final ProductRepository productRepository;
+    private final ChangeEventRepository changeEventRepository;
+    private final ChangeEventService changeEventService;
+    private final TransactionTemplate transactionTemplate;
+    private final int maxCandidates;
+    private final int refreshBatchSize;
+    private final String className = this.getClass().getSimpleName();
+    private volatile long cursor;
+    private volatile boolean ready;
+
+    public ProductNameIndex(ProductRepository productRepository,
+                            ChangeEventRepository changeEventRepository,
+                            ChangeEventService changeEventService,
+                            TransactionTemplate transactionTemplate,
+                            @Value("${inventory.search.max-candidates:1000}") int maxCandidates,
+                            @Value("${inventory.search.refresh-batch-size:1000}") int refreshBatchSize) {
+        this.productRepository = productRepository;
+        this.changeEventRepository = changeEventRepository;
+        this.changeEventService = changeEventService;
+        this.transactionTemplate = transactionTemplate;
+        this.maxCandidates = maxCandidates;
+        this.refreshBatchSize = refreshBatchSize;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        log.debug("calling rebuild method in {}", className);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            // the cursor is taken before the names are read, a write racing the stream is read again from the feed
+            cursor = changeEventRepository.findLastPosition();
+
+            try (Stream<ProductName> productNames = productRepository.streamNames()) {
+                productNames.forEach(productName -> index(productName.id(), productName.name()));
+            }
+        });
+        ready = true;
+
+        log.info("Product name index built with {} products and {} trigrams", names.size(), postings.size());
+    }
+
+    @Scheduled(fixedDelayString = "${inventory.search.refresh-interval-ms:1000}")
+    public void refresh() {
+        if (!ready) {
+            return;
+        }
+
+        Set<Long> changedIds = new HashSet<>();
+        long since = cursor;
+        List<ChangeEventDto> events;
+        do {
+            ChangeFeedDto changeFeed = changeEventService.poll(since, refreshBatchSize, 0L).join();
+            events = changeFeed.getEvents();
+            events.stream()
+                    .filter(event -> event.getEntityType() == ChangeEntityType.PRODUCT)
+                    .forEach(event -> changedIds.add(event.getEntityId()));
+            since = changeFeed.getNextCursor();
+        } while (events.size() == refreshBatchSize);
+
+        if (!changedIds.isEmpty()) {
+            // changed products are read again, the ones that are gone were deleted
+            List<Long> ids = new ArrayList<>(changedIds);
+            List<ProductName> productNames = transactionTemplate.execute(status ->
+                    IdBatches.findInChunks(ids, productRepository::findNamesByIdIn));
+            productNames.forEach(productName -> {
+                index(productName.id(), productName.name());
+                changedIds.remove(productName.id());
+            });
+            changedIds.forEach(this::remove);
+
+            log.debug("Product name index refreshed with {} changed and {} deleted products",
+                      productNames.size(), changedIds.size());
+        }
+        cursor = since;
+    }
+
+    public void index(Long id, String name) {
+        names.compute(id, (key, previousName) -> {
+            if (Objects.equals(previousName, name)) {
+                return previousName;
+            }
+            if (Objects.nonNull(previousName)) {
+                grams(previousName).forEach(gram -> removePosting(gram, id));
+            }
+            grams(name).forEach(gram -> addPosting(gram, id));
+
+            return name;
+        });
+    }
+
+    public void remove(Long id) {
+        names.computeIfPresent(id, (key, previousName) -> {
+            grams(previousName).forEach(gram -> removePosting(gram, id));
+            return null;
+        });
+    }
+
+    /**
+     * Returns the ids of products whose name contains the given text, or empty when the index can't answer
+     * (not built yet, text shorter than a trigram or too many matches) and the caller should query the database.
+     */
+    public Optional<Set<Long>> findCandidates(String text) {
+        if (!ready || text.length() < GRAM_LENGTH) {
+            return Optional.empty();
+        }
+
+        List<Set<Long>> postingLists = grams(text).stream()
+                .map(gram -> postings.getOrDefault(gram, Set.of()))
+                .toList();
+        Set<Long> smallest = postingLists.stream()
+                .min(Comparator.comparingInt(Set::size))
+                .orElse(Set.of());
+
+        Set<Long> candidates = new HashSet<>();
+        for (Long id : smallest) {
+            String name = names.get(id);
+            if (Objects.nonNull(name) && name.contains(text)) {
+                candidates.add(id);
+                if (candidates.size() > maxCandidates) {
+                    return Optional.empty();
+                }
+            }
+        }
+
+        return Optional.of(candidates);
+    }
+
+    private void addPosting(Long gram, Long id) {
+        postings.compute(gram, (key, ids) -> {
+            Set<Long> gramIds = Objects.isNull(ids) ? ConcurrentHashMap.newKeySet() : ids;
+            gramIds.add(id);
+            return gramIds;
+        });
+    }
+
+    private void removePosting(Long gram, Long id) {
+        postings.computeIfPresent(gram, (key, ids) -> {
+            ids.remove(id);
+            return ids.isEmpty() ? null : ids;
+        });
+    }
+
+    private static Set<Long> grams(String text) {
+        if (Objects.isNull(text) || text.length() < GRAM_LENGTH) {
+            return Set.of();
+        }
+
+        return IntStream.rangeClosed(0, text.length() - GRAM_LENGTH)
+                .mapToObj(start -> gram(text, start))
+                .collect(Collectors.toSet());
+    }
+
+    private static Long gram(String text, int start) {
+        // three case folded UTF-16 units packed into one key
+        return ((long) Character.toLowerCase(text.charAt(start)) << 32)
+                | ((long) Character.toLowerCase(text.charAt(start + 1)) << 16)
+                | Character.toLowerCase(text.charAt(start + 2));
+    }
+}
@@ -0,0 +1,12 @@
+package com.pt.productinventory.search;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "inventory.search")
+public class ProductSearchProperties {
+    private int maxPriceBuckets = 1000;
+}
@@ -1,10 +1,14 @@
 package com.pt.productinventory.service;
 
 import com.pt.productinventory.model.Category;
+import com.pt.productinventory.model.ETagged;
 import com.pt.productinventory.model.enums.SortDirection;
+import com.pt.productinventory.model.dto.BatchResponseDto;
 import com.pt.productinventory.model.dto.CategoryRequestDto;
 import com.pt.productinventory.model.dto.CategoryResponseDto;
+import com.pt.productinventory.model.dto.CategorySummaryDto;
 import com.pt.productinventory.model.dto.CategoryUpdateDto;
+import com.pt.productinventory.model.dto.WindowResponseDto;
 import org.springframework.data.domain.Page;
 
 import java.util.List;
@@ -13,14 +17,27 @@ public interface CategoryService {
 
     CategoryResponseDto save(CategoryRequestDto categoryRequestDto);
 
-    List<CategoryResponseDto> findAll();
+    List<CategoryResponseDto> findAll(boolean includeProducts);
 
     Page<CategoryResponseDto> findAllPageable(Integer pageNum,
                                               Integer pageSize,
                                               String sortBy,
-                                              SortDirection sortDirection);
+                                              SortDirection sortDirection,
+                                              boolean includeProducts);
 
-    CategoryResponseDto findByIdResponseDto(Long id);
+    List<CategorySummaryDto> findAllSummaries();
+
+    WindowResponseDto<CategoryResponseDto> findAllScrollable(Integer pageSize,
+                                                             String sortBy,
+                                                             SortDirection sortDirection,
+                                                             String continuationToken,
+                                                             boolean includeTotal);
+
+    ETagged<CategoryResponseDto> findByIdWithETag(Long id);
+
+    BatchResponseDto<CategoryResponseDto> findAllByIds(List<Long> ids);
+
+    String findETag(Long id);
 
     Category findById(Long id);
 
@@ -0,0 +1,21 @@
+package com.pt.productinventory.service;
+
+import com.pt.productinventory.model.dto.ChangeFeedDto;
+import com.pt.productinventory.model.enums.ChangeEntityType;
+import com.pt.productinventory.model.enums.ChangeOperation;
+
+import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
+
+public interface ChangeEventService {
+
+    void record(ChangeEntityType entityType, Long entityId, ChangeOperation operation);
+
+    void recordAll(ChangeEntityType entityType, Collection<Long> entityIds, ChangeOperation operation);
+
+    CompletableFuture<ChangeFeedDto> poll(Long since, Integer limit, Long waitMs);
+
+    void relay();
+
+    void purgeExpired();
+}
@@ -0,0 +1,20 @@
+package com.pt.productinventory.service;
+
+import com.pt.productinventory.model.dto.ProductColumnsDto;
+import com.pt.productinventory.model.dto.ProductStatsDto;
+import com.pt.productinventory.model.enums.ColumnSortField;
+import com.pt.productinventory.model.enums.SortDirection;
+
+import java.util.List;
+
+public interface ProductAnalyticsService {
+
+    ProductStatsDto findStats(Double minPrice, Double maxPrice, List<Long> categoryIds);
+
+    ProductColumnsDto findColumns(Double minPrice,
+                                  Double maxPrice,
+                                  List<Long> categoryIds,
+                                  ColumnSortField sortBy,
+                                  SortDirection sortDirection,
+                                  Integer limit);
+}
@@ -0,0 +1,19 @@
+package com.pt.productinventory.service;
+
+import com.pt.productinventory.model.dto.BulkResponseDto;
+import com.pt.productinventory.model.dto.BulkUpdateResponseDto;
+import com.pt.productinventory.model.enums.BulkFormat;
+
+import java.io.InputStream;
+import java.util.List;
+
+public interface ProductBulkService {
+
+    BulkResponseDto saveAll(InputStream inputStream, BulkFormat bulkFormat);
+
+    BulkUpdateResponseDto repriceCategory(Long categoryId, Double percentage);
+
+    BulkUpdateResponseDto assignCategory(Long categoryId, List<Long> productIds);
+
+    BulkUpdateResponseDto deleteByFilter(String name, Double minPrice, Double maxPrice);
+}
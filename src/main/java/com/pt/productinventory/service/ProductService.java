@@ -1,28 +1,58 @@
 package com.pt.productinventory.service;
 
+import com.pt.productinventory.model.ETagged;
 import com.pt.productinventory.model.Product;
+import com.pt.productinventory.model.ProductFilter;
 import com.pt.productinventory.model.enums.SortDirection;
+import com.pt.productinventory.model.dto.BatchResponseDto;
+import com.pt.productinventory.model.dto.ProductJson;
 import com.pt.productinventory.model.dto.ProductRequestDto;
 import com.pt.productinventory.model.dto.ProductResponseDto;
+import com.pt.productinventory.model.dto.ProductSearchResponseDto;
 import com.pt.productinventory.model.dto.ProductUpdateDto;
+import com.pt.productinventory.model.dto.WindowResponseDto;
 import org.springframework.data.domain.Page;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.List;
 
 public interface ProductService {
     ProductResponseDto save(ProductRequestDto productRequestDto);
 
-    List<ProductResponseDto> findAll();
+    List<ProductJson> findAll();
 
-    Page<ProductResponseDto> findAllPageable(Integer pageNum,
-                                             Integer pageSize,
-                                             String sortBy,
-                                             SortDirection sortDirection,
-                                             String name,
-                                             Double minPrice,
-                                             Double maxPrice);
+    void exportAll(OutputStream outputStream) throws IOException;
 
-    ProductResponseDto findByIdResponseDto(Long id);
+    Page<ProductJson> findAllPageable(Integer pageNum,
+                                      Integer pageSize,
+                                      String sortBy,
+                                      SortDirection sortDirection,
+                                      String name,
+                                      Double minPrice,
+                                      Double maxPrice);
+
+    WindowResponseDto<ProductResponseDto> findAllScrollable(Integer pageSize,
+                                                            String sortBy,
+                                                            SortDirection sortDirection,
+                                                            String name,
+                                                            Double minPrice,
+                                                            Double maxPrice,
+                                                            String continuationToken,
+                                                            boolean includeTotal);
+
+    ProductSearchResponseDto search(ProductFilter productFilter,
+                                    Integer pageNum,
+                                    Integer pageSize,
+                                    List<String> sortBy,
+                                    List<SortDirection> sortDirections,
+                                    Double priceBucketWidth);
+
+    ETagged<ProductResponseDto> findByIdWithETag(Long id);
+
+    BatchResponseDto<ProductResponseDto> findAllByIds(List<Long> ids);
+
+    String findETag(Long id);
 
     Product findById(Long id);
 
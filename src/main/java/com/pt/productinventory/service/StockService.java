@@ -0,0 +1,12 @@
+package com.pt.productinventory.service;
+
+import com.pt.productinventory.model.dto.StockResponseDto;
+
+public interface StockService {
+
+    StockResponseDto reserve(Long productId, Integer quantity);
+
+    StockResponseDto release(Long productId, Integer quantity);
+
+    StockResponseDto adjust(Long productId, Integer delta);
+}
@@ -1,33 +1,56 @@
 package com.pt.productinventory.service.impl;
 
+import com.pt.productinventory.cache.CacheNames;
+import com.pt.productinventory.cache.VersionedCache;
+import com.pt.productinventory.cache.VersionedValue;
 import com.pt.productinventory.error.exceptions.IllegalParameterException;
 import com.pt.productinventory.error.exceptions.ObjectNotFoundException;
 import com.pt.productinventory.mapper.CategoryMapper;
+import com.pt.productinventory.mapper.WindowMapper;
 import com.pt.productinventory.model.Category;
+import com.pt.productinventory.model.ETagged;
 import com.pt.productinventory.model.Product;
+import com.pt.productinventory.model.ProductVersion;
+import com.pt.productinventory.model.VersionStamp;
 import com.pt.productinventory.model.enums.SortDirection;
+import com.pt.productinventory.model.dto.BatchResponseDto;
 import com.pt.productinventory.model.dto.CategoryRequestDto;
 import com.pt.productinventory.model.dto.CategoryResponseDto;
+import com.pt.productinventory.model.dto.CategorySummaryDto;
 import com.pt.productinventory.model.dto.CategoryUpdateDto;
+import com.pt.productinventory.model.dto.WindowResponseDto;
+import com.pt.productinventory.model.enums.ChangeEntityType;
+import com.pt.productinventory.model.enums.ChangeOperation;
 import com.pt.productinventory.repository.CategoryRepository;
 import com.pt.productinventory.repository.ProductRepository;
+import com.pt.productinventory.retry.RetryOnConflict;
 import com.pt.productinventory.service.CategoryService;
+import com.pt.productinventory.service.ChangeEventService;
+import com.pt.productinventory.util.IdBatches;
+import com.pt.productinventory.validator.SortFieldRegistry;
 import com.pt.productinventory.validator.ValidatorService;
 import io.micrometer.common.util.StringUtils;
-import jakarta.transaction.Transactional;
+import io.micrometer.core.annotation.Timed;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.ScrollPosition;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.CollectionUtils;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.stream.Collectors;
 
 @Service
+@Timed("inventory.service")
 @AllArgsConstructor
 @Slf4j
 public class CategoryServiceImpl implements CategoryService {
@@ -35,7 +58,11 @@ public class CategoryServiceImpl implements CategoryService {
     private final CategoryRepository categoryRepository;
     private final ProductRepository productRepository;
     private final CategoryMapper categoryMapper;
+    private final WindowMapper windowMapper;
     private final ValidatorService validatorService;
+    private final SortFieldRegistry sortFieldRegistry;
+    private final VersionedCache versionedCache;
+    private final ChangeEventService changeEventService;
     private final String className = this.getClass().getSimpleName();
 
     @Override
@@ -48,14 +75,21 @@ public class CategoryServiceImpl implements CategoryService {
                 .build();
 
         validatorService.validate(category);
+        Category savedCategory = save(category);
+        changeEventService.record(ChangeEntityType.CATEGORY, savedCategory.getId(), ChangeOperation.CREATED);
 
-        return categoryMapper.toCategoryResponseDto(save(category));
+        return categoryMapper.toCategoryResponseDto(savedCategory);
     }
 
     @Override
-    public List<CategoryResponseDto> findAll() {
+    @Transactional(readOnly = true)
+    public List<CategoryResponseDto> findAll(boolean includeProducts) {
         log.debug("calling findAll method in {}", className);
 
+        if (!includeProducts) {
+            return categoryRepository.findAllSummaries();
+        }
+
         return categoryRepository.findAll()
                 .stream()
                 .map(categoryMapper::toCategoryResponseDto)
@@ -63,32 +97,98 @@ public class CategoryServiceImpl implements CategoryService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Page<CategoryResponseDto> findAllPageable(Integer pageNum,
                                                      Integer pageSize,
                                                      String sortBy,
-                                                     SortDirection sortDirection) {
+                                                     SortDirection sortDirection,
+                                                     boolean includeProducts) {
         log.debug("calling findAllPageable method in {}", className);
 
-        validatorService.validateClassField(Category.class, sortBy);
-
-        Sort sortByDirection = Objects.equals(sortDirection.name(), SortDirection.ASC.name())
-                               ? Sort.by(sortBy).ascending()
-                               : Sort.by(sortBy).descending();
+        Sort sortByDirection = sortFieldRegistry.resolveSort(Category.class, sortBy, sortDirection);
 
         PageRequest pageRequest = PageRequest.of(pageNum, pageSize, sortByDirection);
 
+        if (!includeProducts) {
+            return categoryRepository.findAllSummaries(pageRequest);
+        }
+
         return categoryRepository.findAll(pageRequest)
                 .map(categoryMapper::toCategoryResponseDto);
     }
 
     @Override
-    public CategoryResponseDto findByIdResponseDto(Long id) {
-        log.debug("calling findByIdResponseDto method in {}", className);
+    @Cacheable(CacheNames.CATEGORY_SUMMARIES)
+    @Transactional(readOnly = true)
+    public List<CategorySummaryDto> findAllSummaries() {
+        log.debug("calling findAllSummaries method in {}", className);
+
+        return categoryRepository.findAllProductStats();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public WindowResponseDto<CategoryResponseDto> findAllScrollable(Integer pageSize,
+                                                                    String sortBy,
+                                                                    SortDirection sortDirection,
+                                                                    String continuationToken,
+                                                                    boolean includeTotal) {
+        log.debug("calling findAllScrollable method in {}", className);
+
+        Sort keysetSort = sortFieldRegistry.resolveKeysetSort(Category.class, sortBy, sortDirection);
+        if (pageSize < 1) {
+            throw new IllegalParameterException("Page size parameter is not valid: " + pageSize);
+        }
+
+        ScrollPosition scrollPosition = windowMapper.toScrollPosition(continuationToken, Category.class, keysetSort);
+
+        Window<Category> categoryWindow = categoryRepository.findBy(Specification.where(null), query -> query
+                .sortBy(keysetSort)
+                .limit(pageSize)
+                .scroll(scrollPosition));
+
+        return windowMapper.toWindowResponseDto(categoryWindow,
+                                                categoryMapper::toCategoryResponseDto,
+                                                includeTotal ? categoryRepository.count() : null,
+                                                keysetSort);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ETagged<CategoryResponseDto> findByIdWithETag(Long id) {
+        log.debug("calling findByIdWithETag method in {}", className);
 
-        return categoryMapper.toCategoryResponseDto(findById(id));
+        return categoryRepository.findWithProductsById(id)
+                .map(category -> new ETagged<>(toVersionStamp(category).toETag(), categoryMapper.toCategoryResponseDto(category)))
+                .orElseThrow(() -> new ObjectNotFoundException("Category not found with id: " + id));
     }
 
     @Override
+    @Transactional(readOnly = true)
+    public BatchResponseDto<CategoryResponseDto> findAllByIds(List<Long> ids) {
+        log.debug("calling findAllByIds method in {}", className);
+
+        List<Long> distinctIds = IdBatches.distinct(ids);
+        Map<Long, CategoryResponseDto> found = IdBatches.findInChunks(distinctIds, categoryRepository::findWithProductsByIdIn)
+                .stream()
+                .collect(Collectors.toMap(Category::getId, categoryMapper::toCategoryResponseDto));
+
+        return IdBatches.toBatchResponse(distinctIds, found);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public String findETag(Long id) {
+        log.debug("calling findETag method in {}", className);
+
+        // adding or removing a product doesn't bump the category version, the product versions cover both
+        return categoryRepository.findVersionById(id)
+                .map(version -> VersionStamp.withRelated(version, productRepository.findVersionsByCategoryId(id)).toETag())
+                .orElseThrow(() -> new ObjectNotFoundException("Category not found with id: " + id));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
     public Category findById(Long id) {
         log.debug("calling findById method in {}", className);
 
@@ -97,6 +197,7 @@ public class CategoryServiceImpl implements CategoryService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public CategoryResponseDto findByName(String name) {
         log.debug("calling findByName method in {}", className);
 
@@ -104,42 +205,82 @@ public class CategoryServiceImpl implements CategoryService {
             throw new IllegalParameterException("Name parameter is not valid: " + name);
         }
 
-        return categoryRepository.findByName(name)
-                .map(categoryMapper::toCategoryResponseDto)
-                .orElseThrow(() -> new ObjectNotFoundException("Category not found with name: " + name));
+        return versionedCache.get(CacheNames.CATEGORIES_BY_NAME, name, () -> categoryRepository.findByName(name)
+                .map(category -> new VersionedValue<>(category.getVersion(), categoryMapper.toCategoryResponseDto(category)))
+                .orElseThrow(() -> new ObjectNotFoundException("Category not found with name: " + name)));
     }
 
     @Override
+    @RetryOnConflict
     @Transactional
     public CategoryResponseDto update(Long id, CategoryUpdateDto categoryUpdateDto) {
         log.debug("calling update method in {}", className);
 
         Category category = findById(id);
+        if (!Objects.equals(category.getName(), categoryUpdateDto.getName())) {
+            // every cached product of the category shows the old name, its tombstone carries the new category version
+            productRepository.findVersionsByCategoryId(id)
+                    .forEach(productVersion -> versionedCache.evict(CacheNames.PRODUCTS,
+                                                                    productVersion.id(),
+                                                                    productVersion::version,
+                                                                    category::getVersion));
+        }
+        versionedCache.evict(CacheNames.CATEGORIES_BY_NAME, category.getName(), category::getVersion);
         category.setName(categoryUpdateDto.getName());
+        versionedCache.evict(CacheNames.CATEGORIES_BY_NAME, category.getName(), category::getVersion);
+        changeEventService.record(ChangeEntityType.CATEGORY, id, ChangeOperation.UPDATED);
 
         if (!CollectionUtils.isEmpty(categoryUpdateDto.getProductIds())) {
             List<Product> products = productRepository.findAllById(categoryUpdateDto.getProductIds()).stream()
                     .map(product -> {
+                        if (Objects.nonNull(product.getCategory())) {
+                            versionedCache.evict(CacheNames.CATEGORIES_BY_NAME, product.getCategory().getName());
+                        }
+                        versionedCache.evict(CacheNames.PRODUCTS, product.getId(), product::getVersion);
                         product.setCategory(category);
                         return product;
                     })
                     .collect(Collectors.toList());
             category.setProducts(products);
+            changeEventService.recordAll(ChangeEntityType.PRODUCT,
+                                         products.stream().map(Product::getId).toList(),
+                                         ChangeOperation.UPDATED);
         }
 
         return categoryMapper.toCategoryResponseDto(save(category));
     }
 
     @Override
+    @RetryOnConflict
     @Transactional
     public void deleteById(Long id) {
         log.debug("calling deleteById method in {}", className);
 
-        categoryRepository.deleteById(id);
+        categoryRepository.findById(id).ifPresent(category -> {
+            versionedCache.evict(CacheNames.CATEGORIES_BY_NAME, category.getName());
+            // products are removed together with the category
+            category.getProducts()
+                    .forEach(product -> versionedCache.evict(CacheNames.PRODUCTS, product.getId(), () -> Long.MAX_VALUE));
+            changeEventService.recordAll(ChangeEntityType.PRODUCT,
+                                         category.getProducts().stream().map(Product::getId).toList(),
+                                         ChangeOperation.DELETED);
+            changeEventService.record(ChangeEntityType.CATEGORY, id, ChangeOperation.DELETED);
+            categoryRepository.delete(category);
+        });
 
         log.info("Successfully deleted category with id: {}", id);
     }
 
+    /**
+     * Same stamp as {@link #findETag(Long)}, built from the loaded products instead of another query.
+     */
+    private static VersionStamp toVersionStamp(Category category) {
+        return VersionStamp.withRelated(category.getVersion(),
+                                        category.getProducts().stream()
+                                                .map(product -> new ProductVersion(product.getId(), product.getVersion()))
+                                                .toList());
+    }
+
     @Transactional
     private Category save(Category category) {
         log.debug("calling save method in {}", className);
@@ -0,0 +1,177 @@
+package com.pt.productinventory.service.impl;
+
+import com.pt.productinventory.error.exceptions.IllegalParameterException;
+import com.pt.productinventory.model.ChangeEvent;
+import com.pt.productinventory.model.ChangeNotification;
+import com.pt.productinventory.model.dto.ChangeEventDto;
+import com.pt.productinventory.model.dto.ChangeFeedDto;
+import com.pt.productinventory.model.enums.ChangeEntityType;
+import com.pt.productinventory.model.enums.ChangeOperation;
+import com.pt.productinventory.repository.ChangeEventRepository;
+import com.pt.productinventory.service.ChangeEventService;
+import io.micrometer.core.annotation.Timed;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Transactional outbox for product and category writes. Writers only insert their events, a single relay
+ * then gives the committed ones feed positions in id order. The feed serves numbered events only, so a
+ * transaction committing late gets its positions in a later relay run and can't end up behind a reader's cursor.
+ */
+@Service
+@Timed("inventory.service")
+@Slf4j
+public class ChangeEventServiceImpl implements ChangeEventService {
+
+    private final ChangeEventRepository changeEventRepository;
+    private final ApplicationEventPublisher applicationEventPublisher;
+    private final int maxBatchSize;
+    private final long maxWaitMs;
+    private final long retentionHours;
+    private final int relayBatchSize;
+    private final AtomicReference<CompletableFuture<Void>> nextRelay = new AtomicReference<>(new CompletableFuture<>());
+    private final String className = this.getClass().getSimpleName();
+
+    public ChangeEventServiceImpl(ChangeEventRepository changeEventRepository,
+                                  ApplicationEventPublisher applicationEventPublisher,
+                                  @Value("${inventory.changes.max-batch-size:1000}") int maxBatchSize,
+                                  @Value("${inventory.changes.max-wait-ms:30000}") long maxWaitMs,
+                                  @Value("${inventory.changes.retention-hours:168}") long retentionHours,
+                                  @Value("${inventory.changes.relay-batch-size:1000}") int relayBatchSize) {
+        this.changeEventRepository = changeEventRepository;
+        this.applicationEventPublisher = applicationEventPublisher;
+        this.maxBatchSize = maxBatchSize;
+        this.maxWaitMs = maxWaitMs;
+        this.retentionHours = retentionHours;
+        this.relayBatchSize = relayBatchSize;
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(ChangeEntityType entityType, Long entityId, ChangeOperation operation) {
+        log.debug("calling record method in {}", className);
+
+        recordAll(entityType, List.of(entityId), operation);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordAll(ChangeEntityType entityType, Collection<Long> entityIds, ChangeOperation operation) {
+        log.debug("calling recordAll method in {}", className);
+
+        if (entityIds.isEmpty()) {
+            return;
+        }
+
+        // no position yet, the relay numbers the events once the transaction has committed
+        Instant createdAt = Instant.now();
+        changeEventRepository.saveAll(entityIds.stream()
+                                              .map(entityId -> ChangeEvent.builder()
+                                                      .entityType(entityType)
+                                                      .entityId(entityId)
+                                                      .operation(operation)
+                                                      .createdAt(createdAt)
+                                                      .build())
+                                              .toList());
+        applicationEventPublisher.publishEvent(new ChangeNotification(entityType, List.copyOf(entityIds), operation));
+    }
+
+    @Override
+    public CompletableFuture<ChangeFeedDto> poll(Long since, Integer limit, Long waitMs) {
+        log.debug("calling poll method in {}", className);
+
+        if (Objects.isNull(since) || since < 0) {
+            throw new IllegalParameterException("Since parameter is not valid: " + since);
+        }
+        if (Objects.isNull(limit) || limit < 1 || limit > maxBatchSize) {
+            throw new IllegalParameterException("Limit parameter is not valid: " + limit);
+        }
+        if (Objects.isNull(waitMs) || waitMs < 0 || waitMs > maxWaitMs) {
+            throw new IllegalParameterException("Wait parameter is not valid: " + waitMs);
+        }
+
+        // taken before the query so a relay run in between still wakes this poll up
+        CompletableFuture<Void> relaySignal = nextRelay.get();
+        ChangeFeedDto changeFeed = findAfter(since, limit);
+        if (!changeFeed.getEvents().isEmpty() || waitMs == 0) {
+            return CompletableFuture.completedFuture(changeFeed);
+        }
+
+        // the query runs off the relay thread, which completes the signal in its after commit callback
+        return relaySignal.copy()
+                .completeOnTimeout(null, waitMs, TimeUnit.MILLISECONDS)
+                .thenApplyAsync(ignored -> findAfter(since, limit));
+    }
+
+    /**
+     * Gives the committed, unnumbered events the next feed positions in id order. Uncommitted events aren't
+     * visible here and get later positions once they are, so positions follow commit order between relay runs.
+     * The counter row lock keeps relays of several instances from handing out the same positions, writers never
+     * take it.
+     */
+    @Override
+    @Transactional
+    @Scheduled(fixedDelayString = "${inventory.changes.relay-interval-ms:50}")
+    public void relay() {
+        log.debug("calling relay method in {}", className);
+
+        long position = changeEventRepository.lockLastPosition();
+        List<ChangeEvent> events = changeEventRepository.findUnnumbered(Limit.of(relayBatchSize));
+        if (events.isEmpty()) {
+            return;
+        }
+
+        for (ChangeEvent event : events) {
+            event.setFeedPosition(++position);
+        }
+        changeEventRepository.advanceLastPosition(events.size());
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                signalRelay();
+            }
+        });
+    }
+
+    @Override
+    @Transactional
+    @Scheduled(fixedDelayString = "${inventory.changes.purge-interval-ms:3600000}")
+    public void purgeExpired() {
+        log.debug("calling purgeExpired method in {}", className);
+
+        int purged = changeEventRepository.deleteCreatedBefore(Instant.now().minus(Duration.ofHours(retentionHours)));
+        if (purged > 0) {
+            log.info("Purged {} change events older than {} hours", purged, retentionHours);
+        }
+    }
+
+    private ChangeFeedDto findAfter(Long since, Integer limit) {
+        List<ChangeEventDto> events = changeEventRepository.findAfter(since, Limit.of(limit));
+
+        return ChangeFeedDto.builder()
+                .events(events)
+                .nextCursor(events.isEmpty() ? since : events.getLast().getPosition())
+                .build();
+    }
+
+    private void signalRelay() {
+        nextRelay.getAndSet(new CompletableFuture<>()).complete(null);
+    }
+}
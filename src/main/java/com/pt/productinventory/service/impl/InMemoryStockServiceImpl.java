@@ -0,0 +1,72 @@
+package com.pt.productinventory.service.impl;
+
+import com.pt.productinventory.error.exceptions.IllegalParameterException;
+import com.pt.productinventory.error.exceptions.InsufficientStockException;
+import com.pt.productinventory.model.dto.StockResponseDto;
+import com.pt.productinventory.service.StockService;
+import com.pt.productinventory.stock.StockEngine;
+import io.micrometer.core.annotation.Timed;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.util.Objects;
+
+@Service
+@Timed("inventory.service")
+@ConditionalOnProperty(name = "inventory.stock.mode", havingValue = "memory")
+@AllArgsConstructor
+@Slf4j
+public class InMemoryStockServiceImpl implements StockService {
+
+    private final StockEngine stockEngine;
+    private final String className = this.getClass().getSimpleName();
+
+    @Override
+    public StockResponseDto reserve(Long productId, Integer quantity) {
+        log.debug("calling reserve method in {}", className);
+
+        validatePositive(quantity);
+
+        return adjustQuantity(productId, -quantity);
+    }
+
+    @Override
+    public StockResponseDto release(Long productId, Integer quantity) {
+        log.debug("calling release method in {}", className);
+
+        validatePositive(quantity);
+
+        return adjustQuantity(productId, quantity);
+    }
+
+    @Override
+    public StockResponseDto adjust(Long productId, Integer delta) {
+        log.debug("calling adjust method in {}", className);
+
+        if (Objects.isNull(delta)) {
+            throw new IllegalParameterException("Delta parameter is not valid: " + delta);
+        }
+
+        return adjustQuantity(productId, delta);
+    }
+
+    private StockResponseDto adjustQuantity(Long productId, int delta) {
+        // negated as a long, -Integer.MIN_VALUE doesn't fit an int
+        if (delta < 0 && !stockEngine.tryReserve(productId, Math.negateExact((long) delta))) {
+            throw new InsufficientStockException("Insufficient stock for product with id: " + productId);
+        }
+        if (delta >= 0 && !stockEngine.tryRelease(productId, delta)) {
+            throw new IllegalParameterException("Delta parameter would exceed the maximum quantity: " + delta);
+        }
+
+        return new StockResponseDto(productId, Math.toIntExact(stockEngine.available(productId)));
+    }
+
+    private void validatePositive(Integer quantity) {
+        if (Objects.isNull(quantity) || quantity < 1) {
+            throw new IllegalParameterException("Quantity parameter is not valid: " + quantity);
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.pt.productinventory.service.impl;
+
+import com.pt.productinventory.analytics.ProductColumnStore;
+import com.pt.productinventory.error.exceptions.IllegalParameterException;
+import com.pt.productinventory.model.dto.ProductColumnsDto;
+import com.pt.productinventory.model.dto.ProductStatsDto;
+import com.pt.productinventory.model.enums.ColumnSortField;
+import com.pt.productinventory.model.enums.SortDirection;
+import com.pt.productinventory.service.ProductAnalyticsService;
+import io.micrometer.core.annotation.Timed;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Answers analytical product reads from {@link ProductColumnStore} without touching the database, results
+ * trail the latest writes by up to one snapshot refresh.
+ */
+@Service
+@Timed("inventory.service")
+@ConditionalOnProperty(name = "inventory.analytics.enabled", havingValue = "true")
+@Slf4j
+public class ProductAnalyticsServiceImpl implements ProductAnalyticsService {
+
+    private final ProductColumnStore productColumnStore;
+    private final int maxLimit;
+    private final String className = this.getClass().getSimpleName();
+
+    public ProductAnalyticsServiceImpl(ProductColumnStore productColumnStore,
+                                       @Value("${inventory.analytics.max-limit:10000}") int maxLimit) {
+        this.productColumnStore = productColumnStore;
+        this.maxLimit = maxLimit;
+    }
+
+    @Override
+    public ProductStatsDto findStats(Double minPrice, Double maxPrice, List<Long> categoryIds) {
+        log.debug("calling findStats method in {}", className);
+
+        validatePriceRange(minPrice, maxPrice);
+
+        return productColumnStore.aggregate(lowerBound(minPrice), upperBound(maxPrice), categoryIds);
+    }
+
+    @Override
+    public ProductColumnsDto findColumns(Double minPrice,
+                                         Double maxPrice,
+                                         List<Long> categoryIds,
+                                         ColumnSortField sortBy,
+                                         SortDirection sortDirection,
+                                         Integer limit) {
+        log.debug("calling findColumns method in {}", className);
+
+        validatePriceRange(minPrice, maxPrice);
+        if (Objects.isNull(limit) || limit < 1 || limit > maxLimit) {
+            throw new IllegalParameterException("Limit parameter is not valid: " + limit);
+        }
+
+        return productColumnStore.select(lowerBound(minPrice), upperBound(maxPrice), categoryIds, sortBy, sortDirection, limit);
+    }
+
+    private static void validatePriceRange(Double minPrice, Double maxPrice) {
+        if (Objects.nonNull(minPrice) && Objects.nonNull(maxPrice) && minPrice > maxPrice) {
+            throw new IllegalParameterException("Price range is not valid: " + minPrice + " - " + maxPrice);
+        }
+    }
+
+    private static double lowerBound(Double minPrice) {
+        return Objects.isNull(minPrice) ? Double.NEGATIVE_INFINITY : minPrice;
+    }
+
+    private static double upperBound(Double maxPrice) {
+        return Objects.isNull(maxPrice) ? Double.POSITIVE_INFINITY : maxPrice;
+    }
+}
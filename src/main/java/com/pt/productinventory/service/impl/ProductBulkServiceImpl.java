@@ -0,0 +1,342 @@
+package com.pt.productinventory.service.impl;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import com.pt.productinventory.cache.CacheNames;
+import com.pt.productinventory.cache.VersionedCache;
+import com.pt.productinventory.error.exceptions.IllegalParameterException;
+import com.pt.productinventory.error.exceptions.ObjectNotFoundException;
+import com.pt.productinventory.model.Category;
+import com.pt.productinventory.model.Product;
+import com.pt.productinventory.model.ProductFilter;
+import com.pt.productinventory.model.dto.BulkResponseDto;
+import com.pt.productinventory.model.dto.BulkRowErrorDto;
+import com.pt.productinventory.model.dto.BulkUpdateResponseDto;
+import com.pt.productinventory.model.dto.ProductRequestDto;
+import com.pt.productinventory.model.enums.BulkFormat;
+import com.pt.productinventory.model.enums.ChangeEntityType;
+import com.pt.productinventory.model.enums.ChangeOperation;
+import com.pt.productinventory.repository.ProductRepository;
+import com.pt.productinventory.search.ProductNameIndex;
+import com.pt.productinventory.service.CategoryService;
+import com.pt.productinventory.service.ChangeEventService;
+import com.pt.productinventory.service.ProductBulkService;
+import com.pt.productinventory.util.TransactionCallbacks;
+import com.pt.productinventory.validator.ValidatorService;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceException;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Root;
+import jakarta.validation.ConstraintViolationException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.Objects;
+import java.util.TreeSet;
+import java.util.function.LongFunction;
+import java.util.function.ToIntFunction;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Inserts products in chunks, each chunk in its own transaction so a failing chunk doesn't roll back
+ * the rows loaded before it. A failing chunk is retried in halves until the failing rows are isolated
+ * and reported one by one. Bulk updates and deletes walk the
+ * affected ids in the same chunks and change each chunk with a single set-based statement.
+ */
+@Service
+@Timed("inventory.service")
+@Slf4j
+public class ProductBulkServiceImpl implements ProductBulkService {
+
+    static final int CHUNK_SIZE = 500;
+
+    private final ObjectReader jsonReader;
+    private final ObjectReader csvReader;
+    private final ValidatorService validatorService;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final ProductRepository productRepository;
+    private final CategoryService categoryService;
+    private final VersionedCache versionedCache;
+    private final ProductNameIndex productNameIndex;
+    private final ChangeEventService changeEventService;
+    private final String className = this.getClass().getSimpleName();
+
+    public ProductBulkServiceImpl(ObjectMapper objectMapper,
+                                  ValidatorService validatorService,
+                                  EntityManager entityManager,
+                                  TransactionTemplate transactionTemplate,
+                                  ProductRepository productRepository,
+                                  CategoryService categoryService,
+                                  VersionedCache versionedCache,
+                                  ProductNameIndex productNameIndex,
+                                  ChangeEventService changeEventService) {
+        this.jsonReader = objectMapper.readerFor(ProductRequestDto.class);
+        this.csvReader = new CsvMapper()
+                .readerFor(ProductRequestDto.class)
+                .with(CsvSchema.emptySchema().withHeader());
+        this.validatorService = validatorService;
+        this.entityManager = entityManager;
+        this.transactionTemplate = transactionTemplate;
+        this.productRepository = productRepository;
+        this.categoryService = categoryService;
+        this.versionedCache = versionedCache;
+        this.productNameIndex = productNameIndex;
+        this.changeEventService = changeEventService;
+    }
+
+    @Override
+    public BulkResponseDto saveAll(InputStream inputStream, BulkFormat bulkFormat) {
+        log.debug("calling saveAll method in {}", className);
+
+        List<BulkRowErrorDto> failures = new ArrayList<>();
+        List<BulkRow> chunk = new ArrayList<>(CHUNK_SIZE);
+        long received = 0;
+        long inserted = 0;
+
+        ObjectReader reader = bulkFormat == BulkFormat.CSV ? csvReader : jsonReader;
+        try (MappingIterator<ProductRequestDto> rows = reader.readValues(inputStream)) {
+            while (rows.hasNextValue()) {
+                long rowNumber = received + 1;
+                try {
+                    ProductRequestDto productRequestDto = rows.nextValue();
+                    received = rowNumber;
+                    Product product = toProduct(productRequestDto);
+                    validatorService.validate(product);
+                    chunk.add(new BulkRow(rowNumber, product));
+                } catch (JsonMappingException e) {
+                    if (e.getCause() instanceof JsonParseException) {
+                        // a parse error surfaced through the binding, the input can't be resynchronized
+                        throw e;
+                    }
+                    // a value that doesn't bind only fails its row, the iterator resumes at the next one
+                    received = rowNumber;
+                    failures.add(new BulkRowErrorDto(rowNumber, "Row could not be mapped: " + e.getOriginalMessage()));
+                } catch (ConstraintViolationException | ObjectNotFoundException e) {
+                    failures.add(new BulkRowErrorDto(rowNumber, e.getMessage()));
+                }
+
+                if (chunk.size() == CHUNK_SIZE) {
+                    inserted += persistChunk(chunk, failures);
+                    chunk.clear();
+                }
+            }
+        } catch (IOException e) {
+            // malformed input can't be resynchronized, keep what was read so far and report where it stopped
+            log.error("Error: Bulk input could not be read after row {}", received, e);
+            failures.add(new BulkRowErrorDto(received + 1, "Row could not be read: " + e.getMessage()));
+        }
+        inserted += persistChunk(chunk, failures);
+
+        log.info("Bulk load finished, received: {}, inserted: {}, failed: {}", received, inserted, failures.size());
+
+        return BulkResponseDto.builder()
+                .received(received)
+                .inserted(inserted)
+                .failures(failures)
+                .build();
+    }
+
+    @Override
+    public BulkUpdateResponseDto repriceCategory(Long categoryId, Double percentage) {
+        log.debug("calling repriceCategory method in {}", className);
+
+        if (Objects.isNull(percentage) || !Double.isFinite(percentage) || percentage <= -100) {
+            throw new IllegalParameterException("Percentage parameter is not valid: " + percentage);
+        }
+        categoryService.findById(categoryId);
+        double factor = 1 + percentage / 100;
+
+        return executeInChunks(afterId -> productRepository.findIdsByCategoryId(categoryId, afterId, Limit.of(CHUNK_SIZE)),
+                               ids -> productRepository.repriceByIds(ids, factor),
+                               false);
+    }
+
+    @Override
+    public BulkUpdateResponseDto assignCategory(Long categoryId, List<Long> productIds) {
+        log.debug("calling assignCategory method in {}", className);
+
+        Category category = categoryService.findById(categoryId);
+        NavigableSet<Long> pendingIds = productIds.stream()
+                .filter(Objects::nonNull)
+                .collect(Collectors.toCollection(TreeSet::new));
+
+        return executeInChunks(afterId -> pendingIds.tailSet(afterId, false).stream().limit(CHUNK_SIZE).toList(),
+                               ids -> productRepository.assignCategoryByIds(ids, category),
+                               false);
+    }
+
+    @Override
+    public BulkUpdateResponseDto deleteByFilter(String name, Double minPrice, Double maxPrice) {
+        log.debug("calling deleteByFilter method in {}", className);
+
+        if (Stream.of(name, minPrice, maxPrice).allMatch(Objects::isNull)) {
+            throw new IllegalParameterException("At least one filter parameter is required for bulk delete");
+        }
+        ProductFilter productFilter = ProductFilter.builder()
+                .name(name)
+                .minPrice(minPrice)
+                .maxPrice(maxPrice)
+                .build();
+
+        return executeInChunks(afterId -> findIds(productFilter, afterId),
+                               productRepository::deleteByIds,
+                               true);
+    }
+
+    /**
+     * Selects the next chunk of ids after the last processed one and applies the statement to it, both in one
+     * transaction per chunk. Chunks committed before a failure stay applied.
+     */
+    private BulkUpdateResponseDto executeInChunks(LongFunction<List<Long>> nextChunk,
+                                                  ToIntFunction<List<Long>> statement,
+                                                  boolean deletesProducts) {
+        long affected = 0;
+        int chunks = 0;
+        long afterId = Long.MIN_VALUE;
+
+        while (true) {
+            long from = afterId;
+            ChunkResult chunkResult;
+            try {
+                chunkResult = transactionTemplate.execute(status -> {
+                    List<Long> ids = nextChunk.apply(from);
+                    if (ids.isEmpty()) {
+                        return null;
+                    }
+
+                    int changed = statement.applyAsInt(ids);
+                    syncDerivedState(ids, deletesProducts);
+                    return new ChunkResult(ids.getLast(), changed);
+                });
+            } catch (DataAccessException | TransactionException e) {
+                log.error("Error: Bulk statement failed after {} chunks and {} rows", chunks, affected, e);
+                throw e;
+            }
+
+            if (Objects.isNull(chunkResult)) {
+                break;
+            }
+            afterId = chunkResult.lastId();
+            affected += chunkResult.changed();
+            chunks++;
+        }
+
+        log.info("Bulk statement finished, chunks: {}, affected: {}", chunks, affected);
+
+        return BulkUpdateResponseDto.builder()
+                .affected(affected)
+                .chunks(chunks)
+                .build();
+    }
+
+    private void syncDerivedState(List<Long> ids, boolean deletesProducts) {
+        // set-based statements bypass the entity listeners, so caches and the name index are updated here
+        if (deletesProducts) {
+            ids.forEach(id -> versionedCache.evict(CacheNames.PRODUCTS, id, () -> Long.MAX_VALUE));
+            TransactionCallbacks.afterCommit(() -> ids.forEach(productNameIndex::remove));
+            changeEventService.recordAll(ChangeEntityType.PRODUCT, ids, ChangeOperation.DELETED);
+        } else {
+            // the statements bumped the versions, the tombstones keep reads from before the commit out
+            productRepository.findVersionsByIdIn(ids)
+                    .forEach(productVersion -> versionedCache.evict(CacheNames.PRODUCTS, productVersion.id(), productVersion::version));
+            changeEventService.recordAll(ChangeEntityType.PRODUCT, ids, ChangeOperation.UPDATED);
+        }
+        versionedCache.clear(CacheNames.CATEGORIES_BY_NAME);
+    }
+
+    private List<Long> findIds(ProductFilter productFilter, long afterId) {
+        Specification<Product> productSpecification = ProductSpecifications.byFilterInDatabase(productFilter)
+                .and((root, query, criteriaBuilder) -> criteriaBuilder.greaterThan(root.get("id"), afterId));
+
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> idQuery = criteriaBuilder.createQuery(Long.class);
+        Root<Product> root = idQuery.from(Product.class);
+        idQuery.select(root.get("id"))
+                .where(productSpecification.toPredicate(root, idQuery, criteriaBuilder))
+                .orderBy(criteriaBuilder.asc(root.get("id")));
+
+        return entityManager.createQuery(idQuery)
+                .setMaxResults(CHUNK_SIZE)
+                .getResultList();
+    }
+
+    private long persistChunk(List<BulkRow> chunk, List<BulkRowErrorDto> failures) {
+        if (chunk.isEmpty()) {
+            return 0;
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                chunk.forEach(row -> entityManager.persist(row.product()));
+                changeEventService.recordAll(ChangeEntityType.PRODUCT,
+                                             chunk.stream().map(row -> row.product().getId()).toList(),
+                                             ChangeOperation.CREATED);
+                entityManager.flush();
+                entityManager.clear();
+            });
+            return chunk.size();
+        } catch (PersistenceException | DataAccessException | TransactionException e) {
+            if (chunk.size() == 1) {
+                // the database message can carry SQL and constraint details, it only goes to the log
+                log.error("Error: Bulk row {} failed", chunk.getFirst().rowNumber(), e);
+                failures.add(new BulkRowErrorDto(chunk.getFirst().rowNumber(), "Row could not be saved"));
+                return 0;
+            }
+
+            log.warn("Bulk chunk of {} rows starting at row {} failed, retrying it in halves: {}",
+                     chunk.size(), chunk.getFirst().rowNumber(), e.getMessage());
+            // the rolled back attempt left generated ids on the entities, so the halves persist fresh copies
+            List<BulkRow> retried = chunk.stream().map(BulkRow::copy).toList();
+            int middle = retried.size() / 2;
+            return persistChunk(retried.subList(0, middle), failures)
+                    + persistChunk(retried.subList(middle, retried.size()), failures);
+        }
+    }
+
+    private Product toProduct(ProductRequestDto productRequestDto) {
+        if (productRequestDto == null) {
+            throw new ObjectNotFoundException("Object can't be null!");
+        }
+
+        return Product.builder()
+                .name(productRequestDto.getName())
+                .description(productRequestDto.getDescription())
+                .price(productRequestDto.getPrice())
+                .quantity(productRequestDto.getQuantity())
+                .build();
+    }
+
+    private record BulkRow(long rowNumber, Product product) {
+
+        BulkRow copy() {
+            return new BulkRow(rowNumber, Product.builder()
+                    .name(product.getName())
+                    .description(product.getDescription())
+                    .price(product.getPrice())
+                    .quantity(product.getQuantity())
+                    .build());
+        }
+    }
+
+    private record ChunkResult(long lastId, int changed) {
+    }
+}
@@ -1,33 +1,85 @@
 package com.pt.productinventory.service.impl;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.pt.productinventory.cache.CacheNames;
+import com.pt.productinventory.cache.RequestCoalescer;
+import com.pt.productinventory.cache.VersionedCache;
+import com.pt.productinventory.cache.VersionedValue;
+import com.pt.productinventory.error.exceptions.IllegalParameterException;
 import com.pt.productinventory.error.exceptions.ObjectNotFoundException;
+import com.pt.productinventory.mapper.ProductJsonMapper;
 import com.pt.productinventory.mapper.ProductMapper;
+import com.pt.productinventory.mapper.WindowMapper;
 import com.pt.productinventory.model.Category;
+import com.pt.productinventory.model.ETagged;
 import com.pt.productinventory.model.Product;
 import com.pt.productinventory.model.ProductFilter;
+import com.pt.productinventory.model.VersionStamp;
+import com.pt.productinventory.model.dto.BatchResponseDto;
+import com.pt.productinventory.model.dto.CategoryFacetDto;
+import com.pt.productinventory.model.dto.PriceBucketDto;
 import com.pt.productinventory.model.enums.SortDirection;
+import com.pt.productinventory.model.dto.ProductJson;
 import com.pt.productinventory.model.dto.ProductRequestDto;
 import com.pt.productinventory.model.dto.ProductResponseDto;
+import com.pt.productinventory.model.dto.ProductSearchResponseDto;
 import com.pt.productinventory.model.dto.ProductUpdateDto;
+import com.pt.productinventory.model.dto.WindowResponseDto;
+import com.pt.productinventory.model.enums.ChangeEntityType;
+import com.pt.productinventory.model.enums.ChangeOperation;
 import com.pt.productinventory.repository.ProductRepository;
+import com.pt.productinventory.retry.RetryOnConflict;
+import com.pt.productinventory.search.ProductNameIndex;
+import com.pt.productinventory.search.ProductSearchProperties;
+import com.pt.productinventory.util.IdBatches;
 import com.pt.productinventory.service.CategoryService;
+import com.pt.productinventory.service.ChangeEventService;
 import com.pt.productinventory.service.ProductService;
+import com.pt.productinventory.validator.SortFieldRegistry;
 import com.pt.productinventory.validator.ValidatorService;
-import jakarta.transaction.Transactional;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Root;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Hibernate;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.ScrollPosition;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
 import org.springframework.stereotype.Service;
-
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.DoubleSummaryStatistics;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.TreeMap;
 import java.util.stream.Collectors;
+import java.util.stream.DoubleStream;
+import java.util.stream.Stream;
 
 @Service
+@Timed("inventory.service")
 @AllArgsConstructor
 @Slf4j
 public class ProductServiceImpl implements ProductService {
@@ -35,7 +87,17 @@ public class ProductServiceImpl implements ProductService {
     private final ProductRepository productRepository;
     private final CategoryService categoryService;
     private final ValidatorService validatorService;
+    private final SortFieldRegistry sortFieldRegistry;
     private final ProductMapper productMapper;
+    private final ProductJsonMapper productJsonMapper;
+    private final WindowMapper windowMapper;
+    private final ObjectMapper objectMapper;
+    private final EntityManager entityManager;
+    private final VersionedCache versionedCache;
+    private final ProductNameIndex productNameIndex;
+    private final ChangeEventService changeEventService;
+    private final RequestCoalescer requestCoalescer;
+    private final ProductSearchProperties productSearchProperties;
     private final String className = this.getClass().getSimpleName();
 
     @Override
@@ -51,30 +113,61 @@ public class ProductServiceImpl implements ProductService {
                 .build();
 
         validatorService.validate(product);
+        Product savedProduct = save(product);
+        changeEventService.record(ChangeEntityType.PRODUCT, savedProduct.getId(), ChangeOperation.CREATED);
 
-        return productMapper.toProductResponseDto(save(product));
+        return productMapper.toProductResponseDto(savedProduct);
     }
 
     @Override
-    public List<ProductResponseDto> findAll() {
+    @Transactional(readOnly = true)
+    public List<ProductJson> findAll() {
         log.debug("calling findAll method in {}", className);
 
         return productRepository.findAll().stream()
-                .map(productMapper::toProductResponseDto)
+                .map(productJsonMapper::toProductJson)
                 .collect(Collectors.toList());
     }
 
     @Override
-    public Page<ProductResponseDto> findAllPageable(Integer pageNum,
-                                                    Integer pageSize,
-                                                    String sortBy,
-                                                    SortDirection sortDirection,
-                                                    String name,
-                                                    Double minPrice,
-                                                    Double maxPrice) {
+    @Transactional(readOnly = true)
+    public void exportAll(OutputStream outputStream) throws IOException {
+        log.debug("calling exportAll method in {}", className);
+
+        ObjectWriter productWriter = objectMapper.writerFor(ProductResponseDto.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+
+        try (Stream<Product> products = productRepository.streamAll();
+             JsonGenerator generator = objectMapper.createGenerator(outputStream)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setRootValueSeparator(null);
+
+            Iterator<Product> iterator = products.iterator();
+            long count = 0;
+            while (iterator.hasNext()) {
+                productWriter.writeValue(generator, productMapper.toProductResponseDto(iterator.next()));
+                generator.writeRaw('\n');
+
+                // keep the persistence context and the response buffer flat while scrolling
+                if (++count % ProductRepository.STREAM_FETCH_SIZE == 0) {
+                    generator.flush();
+                    entityManager.clear();
+                }
+            }
+        }
+    }
+
+    @Override
+    public Page<ProductJson> findAllPageable(Integer pageNum,
+                                             Integer pageSize,
+                                             String sortBy,
+                                             SortDirection sortDirection,
+                                             String name,
+                                             Double minPrice,
+                                             Double maxPrice) {
         log.debug("calling findAllPageable method in {}", className);
 
-        validatorService.validateClassField(Product.class, sortBy);
+        Sort sortByDirection = sortFieldRegistry.resolveSort(Product.class, sortBy, sortDirection);
 
         ProductFilter productFilter = ProductFilter.builder()
                 .name(name)
@@ -84,24 +177,161 @@ public class ProductServiceImpl implements ProductService {
 
         Specification<Product> productSpecification = createFilterSpecification(productFilter);
 
-        Sort sortByDirection = Objects.equals(sortDirection.name(), SortDirection.ASC.name())
-                               ? Sort.by(sortBy).ascending()
-                               : Sort.by(sortBy).descending();
-
         PageRequest pageRequest = PageRequest.of(pageNum, pageSize, sortByDirection);
 
-        return productRepository.findAll(productSpecification, pageRequest)
-                .map(productMapper::toProductResponseDto);
+        // concurrent requests for the same page share one query, the transaction is opened by the coalescer
+        return requestCoalescer.execute("productPage", new PageKey(pageRequest, name, minPrice, maxPrice), () ->
+                productRepository.findAll(productSpecification, pageRequest)
+                        .map(productJsonMapper::toProductJson));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public WindowResponseDto<ProductResponseDto> findAllScrollable(Integer pageSize,
+                                                                   String sortBy,
+                                                                   SortDirection sortDirection,
+                                                                   String name,
+                                                                   Double minPrice,
+                                                                   Double maxPrice,
+                                                                   String continuationToken,
+                                                                   boolean includeTotal) {
+        log.debug("calling findAllScrollable method in {}", className);
+
+        Sort keysetSort = sortFieldRegistry.resolveKeysetSort(Product.class, sortBy, sortDirection);
+        if (pageSize < 1) {
+            throw new IllegalParameterException("Page size parameter is not valid: " + pageSize);
+        }
+
+        ProductFilter productFilter = ProductFilter.builder()
+                .name(name)
+                .minPrice(minPrice)
+                .maxPrice(maxPrice)
+                .build();
+
+        Specification<Product> productSpecification = createFilterSpecification(productFilter);
+        ScrollPosition scrollPosition = windowMapper.toScrollPosition(continuationToken, Product.class, keysetSort);
+
+        Window<Product> productWindow = productRepository.findBy(productSpecification, query -> query
+                .sortBy(keysetSort)
+                .limit(pageSize)
+                .scroll(scrollPosition));
+
+        return windowMapper.toWindowResponseDto(productWindow,
+                                                productMapper::toProductResponseDto,
+                                                includeTotal ? productRepository.count(productSpecification) : null,
+                                                keysetSort);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ProductSearchResponseDto search(ProductFilter productFilter,
+                                           Integer pageNum,
+                                           Integer pageSize,
+                                           List<String> sortBy,
+                                           List<SortDirection> sortDirections,
+                                           Double priceBucketWidth) {
+        log.debug("calling search method in {}", className);
+
+        if (Objects.isNull(priceBucketWidth) || !Double.isFinite(priceBucketWidth) || priceBucketWidth <= 0) {
+            throw new IllegalParameterException("Price bucket width parameter is not valid: " + priceBucketWidth);
+        }
+        Sort sort = sortFieldRegistry.resolveSort(Product.class, sortBy, sortDirections);
+        PageRequest pageRequest = PageRequest.of(pageNum, pageSize, sort);
+
+        // category counts leave out the category filter so that other categories stay selectable, the total
+        // and the histogram only count the selected categories, each comes from its own grouped query
+        List<CategoryCount> categoryCounts = findCategoryCounts(productFilter.toBuilder().categoryIds(null).build());
+        List<CategoryFacetDto> categoryFacets = categoryCounts.stream()
+                .filter(categoryCount -> Objects.nonNull(categoryCount.categoryId()))
+                .map(categoryCount -> new CategoryFacetDto(categoryCount.categoryId(), categoryCount.categoryName(), categoryCount.count()))
+                .sorted(Comparator.comparing(CategoryFacetDto::getProductCount).reversed()
+                                .thenComparing(CategoryFacetDto::getName))
+                .toList();
+
+        // the selected products lie within the price range of all categories, widening the buckets to that range
+        // over the maximum bucket count keeps narrow buckets from returning a group per product
+        double bucketWidth = Math.max(priceBucketWidth, priceRange(categoryCounts) / productSearchProperties.getMaxPriceBuckets());
+        Map<Long, Long> priceBuckets = findPriceBuckets(productFilter, bucketWidth);
+        long totalElements = priceBuckets.values().stream().mapToLong(Long::longValue).sum();
+
+        // the facets already hold the total, so the page is read without a count query and only when it has rows
+        List<ProductJson> content = totalElements > pageRequest.getOffset()
+                                    ? findPage(createFilterSpecification(productFilter), pageRequest).stream()
+                                            .map(productJsonMapper::toProductJson)
+                                            .toList()
+                                    : List.of();
+
+        return ProductSearchResponseDto.builder()
+                .content(content)
+                .pageNum(pageNum)
+                .pageSize(pageSize)
+                .totalElements(totalElements)
+                .categories(categoryFacets)
+                .priceHistogram(priceBuckets.entrySet().stream()
+                                        .map(bucket -> new PriceBucketDto(bucket.getKey() * bucketWidth,
+                                                                          (bucket.getKey() + 1) * bucketWidth,
+                                                                          bucket.getValue()))
+                                        .toList())
+                .build();
+    }
+
+    @Override
+    public ETagged<ProductResponseDto> findByIdWithETag(Long id) {
+        log.debug("calling findByIdWithETag method in {}", className);
+
+        // cache misses for the same product share one query, the transaction is opened by the coalescer
+        VersionedValue<ProductResponseDto> versionedValue = versionedCache.getEntry(CacheNames.PRODUCTS, id, () ->
+                requestCoalescer.execute("product", id, () -> {
+                    Product product = findById(id);
+                    return toVersionedValue(product, productMapper.toProductResponseDto(product));
+                }));
+
+        return new ETagged<>(toETag(versionedValue), versionedValue.value());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public BatchResponseDto<ProductResponseDto> findAllByIds(List<Long> ids) {
+        log.debug("calling findAllByIds method in {}", className);
+
+        List<Long> distinctIds = IdBatches.distinct(ids);
+        Map<Long, ProductResponseDto> found = new HashMap<>();
+        List<Long> uncachedIds = new ArrayList<>();
+        for (Long id : distinctIds) {
+            ProductResponseDto cached = versionedCache.getIfPresent(CacheNames.PRODUCTS, id);
+            if (Objects.nonNull(cached)) {
+                found.put(id, cached);
+            } else {
+                uncachedIds.add(id);
+            }
+        }
+
+        IdBatches.findInChunks(uncachedIds, productRepository::findWithCategoryByIdIn).forEach(product -> {
+            ProductResponseDto productResponseDto = productMapper.toProductResponseDto(product);
+            versionedCache.put(CacheNames.PRODUCTS, product.getId(), toVersionedValue(product, productResponseDto));
+            found.put(product.getId(), productResponseDto);
+        });
+
+        return IdBatches.toBatchResponse(distinctIds, found);
     }
 
     @Override
-    public ProductResponseDto findByIdResponseDto(Long id) {
-        log.debug("calling findByIdResponseDto method in {}", className);
+    public String findETag(Long id) {
+        log.debug("calling findETag method in {}", className);
+
+        // a cached entry carries the same versions as the stamp, only products that aren't cached are looked up
+        VersionedValue<ProductResponseDto> cached = versionedCache.getEntryIfPresent(CacheNames.PRODUCTS, id);
+        if (Objects.nonNull(cached)) {
+            return toETag(cached);
+        }
 
-        return productMapper.toProductResponseDto(findById(id));
+        return productRepository.findVersionStampById(id)
+                .map(VersionStamp::toETag)
+                .orElseThrow(() -> new ObjectNotFoundException("Product not found with id: " + id));
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Product findById(Long id) {
         log.debug("calling findById method in {}", className);
 
@@ -110,11 +340,13 @@ public class ProductServiceImpl implements ProductService {
     }
 
     @Override
+    @RetryOnConflict
     @Transactional
     public ProductResponseDto update(Long productId, ProductUpdateDto productUpdateDto) {
         log.debug("calling update method in {}", className);
 
         Product product = findById(productId);
+        evictCategory(product.getCategory());
 
         product.setName(productUpdateDto.getName());
         product.setDescription(productUpdateDto.getDescription());
@@ -124,40 +356,57 @@ public class ProductServiceImpl implements ProductService {
                 .ifPresentOrElse(categoryId -> {
                     Category category = categoryService.findById(categoryId);
                     product.setCategory(category);
-                    if (!category.getProducts().contains(product)) {
+                    evictCategory(category);
+                    if (Hibernate.isInitialized(category.getProducts()) && !category.getProducts().contains(product)) {
                         category.getProducts().add(product);
                     }
                 }, () -> {
                     throw new ObjectNotFoundException("Category not found with id: " + productUpdateDto.getCategoryId());
                 });
+        versionedCache.evict(CacheNames.PRODUCTS, productId, product::getVersion);
+        changeEventService.record(ChangeEntityType.PRODUCT, productId, ChangeOperation.UPDATED);
 
         return productMapper.toProductResponseDto(save(product));
     }
 
     @Override
+    @RetryOnConflict
     @Transactional
     public void deleteById(Long id) {
         log.debug("calling deleteById method in {}", className);
 
         productRepository.deleteById(id);
+        versionedCache.evict(CacheNames.PRODUCTS, id, () -> Long.MAX_VALUE);
+        // the deleted product may be listed in any cached category
+        versionedCache.clear(CacheNames.CATEGORIES_BY_NAME);
+        changeEventService.record(ChangeEntityType.PRODUCT, id, ChangeOperation.DELETED);
 
         log.info("Successfully deleted product with id: {}", id);
     }
 
     @Override
+    @RetryOnConflict
     @Transactional
     public void addCategoryToProduct(Long categoryId, Long productId) {
         log.debug("calling addCategoryToProduct method in {}", className);
 
         Category category = categoryService.findById(categoryId);
         Product product = findById(productId);
+        evictCategory(product.getCategory());
         product.setCategory(category);
-        category.getProducts().add(product);
+        // only keep the inverse side in sync when it is already loaded, the product owns the relation
+        if (Hibernate.isInitialized(category.getProducts())) {
+            category.getProducts().add(product);
+        }
+        evictCategory(category);
+        versionedCache.evict(CacheNames.PRODUCTS, productId, product::getVersion);
+        changeEventService.record(ChangeEntityType.PRODUCT, productId, ChangeOperation.UPDATED);
 
         save(product);
     }
 
     @Override
+    @RetryOnConflict
     @Transactional
     public void removeCategoryFromProduct(Long categoryId, Long productId) {
         log.debug("calling removeCategoryFromProduct method in {}", className);
@@ -165,12 +414,32 @@ public class ProductServiceImpl implements ProductService {
         Category category = categoryService.findById(categoryId);
         Product product = findById(productId);
 
-        category.getProducts().removeIf(p -> p.getId().equals(productId));
+        // only keep the inverse side in sync when it is already loaded, the product owns the relation
+        if (Hibernate.isInitialized(category.getProducts())) {
+            category.getProducts().removeIf(p -> p.getId().equals(productId));
+        }
         product.setCategory(null);
+        evictCategory(category);
+        versionedCache.evict(CacheNames.PRODUCTS, productId, product::getVersion);
+        changeEventService.record(ChangeEntityType.PRODUCT, productId, ChangeOperation.UPDATED);
 
         save(product);
     }
 
+    /**
+     * Product responses carry the category name, a rename doesn't bump the product version, so the
+     * category version orders the cached entries as well.
+     */
+    private VersionedValue<ProductResponseDto> toVersionedValue(Product product, ProductResponseDto productResponseDto) {
+        Long categoryVersion = Objects.isNull(product.getCategory()) ? null : product.getCategory().getVersion();
+
+        return new VersionedValue<>(product.getVersion(), categoryVersion, productResponseDto);
+    }
+
+    private static String toETag(VersionedValue<?> versionedValue) {
+        return new VersionStamp(versionedValue.version(), versionedValue.relatedVersion()).toETag();
+    }
+
     @Transactional
     private Product save(Product product) {
         log.debug("calling save method in {}", className);
@@ -178,24 +447,94 @@ public class ProductServiceImpl implements ProductService {
         return productRepository.save(product);
     }
 
-    private Specification<Product> createFilterSpecification(ProductFilter filter) {
+    private void evictCategory(Category category) {
+        // product writes don't bump the category version, so the cached category is dropped instead
+        if (Objects.nonNull(category)) {
+            versionedCache.evict(CacheNames.CATEGORIES_BY_NAME, category.getName());
+        }
+    }
+
+    Specification<Product> createFilterSpecification(ProductFilter filter) {
         log.debug("calling createFilterSpecification method in {}", className);
 
-        Specification<Product> spec = Specification.where(null);
+        return ProductSpecifications.byFilter(filter, productNameIndex);
+    }
 
-        if (filter.getName() != null) {
-            spec = spec.and((root, query, criteriaBuilder) ->
-                                    criteriaBuilder.like(root.get("name"), "%" + filter.getName() + "%"));
-        }
-        if (filter.getMinPrice() != null) {
-            spec = spec.and((root, query, criteriaBuilder) ->
-                                    criteriaBuilder.greaterThanOrEqualTo(root.get("price"), filter.getMinPrice()));
-        }
-        if (filter.getMaxPrice() != null) {
-            spec = spec.and((root, query, criteriaBuilder) ->
-                                    criteriaBuilder.lessThanOrEqualTo(root.get("price"), filter.getMaxPrice()));
-        }
+    private List<Product> findPage(Specification<Product> productSpecification, PageRequest pageRequest) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Product> pageQuery = criteriaBuilder.createQuery(Product.class);
+        Root<Product> root = pageQuery.from(Product.class);
+        root.fetch("category", JoinType.LEFT);
+        pageQuery.select(root)
+                .orderBy(QueryUtils.toOrders(pageRequest.getSort(), root, criteriaBuilder));
+        Optional.ofNullable(productSpecification.toPredicate(root, pageQuery, criteriaBuilder))
+                .ifPresent(pageQuery::where);
+
+        return entityManager.createQuery(pageQuery)
+                .setFirstResult((int) pageRequest.getOffset())
+                .setMaxResults(pageRequest.getPageSize())
+                .getResultList();
+    }
+
+    /**
+     * Product counts and price range per category, products without a category included under a null id.
+     */
+    private List<CategoryCount> findCategoryCounts(ProductFilter productFilter) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> categoryQuery = criteriaBuilder.createTupleQuery();
+        Root<Product> root = categoryQuery.from(Product.class);
+        Join<Product, Category> category = root.join("category", JoinType.LEFT);
+
+        categoryQuery.multiselect(category.get("id"),
+                                  category.get("name"),
+                                  criteriaBuilder.count(root),
+                                  criteriaBuilder.min(root.<Double>get("price")),
+                                  criteriaBuilder.max(root.<Double>get("price")))
+                .groupBy(category.get("id"), category.get("name"));
+        Optional.ofNullable(createFilterSpecification(productFilter).toPredicate(root, categoryQuery, criteriaBuilder))
+                .ifPresent(categoryQuery::where);
+
+        return entityManager.createQuery(categoryQuery).getResultList().stream()
+                .map(tuple -> new CategoryCount(tuple.get(0, Long.class),
+                                                tuple.get(1, String.class),
+                                                tuple.get(2, Long.class),
+                                                tuple.get(3, Double.class),
+                                                tuple.get(4, Double.class)))
+                .toList();
+    }
+
+    /**
+     * Product counts grouped by price bucket, keyed by the bucket index in price order.
+     */
+    private Map<Long, Long> findPriceBuckets(ProductFilter productFilter, double bucketWidth) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> bucketQuery = criteriaBuilder.createTupleQuery();
+        Root<Product> root = bucketQuery.from(Product.class);
+        Expression<Number> priceBucket = criteriaBuilder.floor(criteriaBuilder.quot(root.<Double>get("price"), bucketWidth));
+
+        bucketQuery.multiselect(priceBucket, criteriaBuilder.count(root))
+                .groupBy(priceBucket);
+        Optional.ofNullable(createFilterSpecification(productFilter).toPredicate(root, bucketQuery, criteriaBuilder))
+                .ifPresent(bucketQuery::where);
+
+        Map<Long, Long> priceBuckets = new TreeMap<>();
+        entityManager.createQuery(bucketQuery).getResultList()
+                .forEach(tuple -> priceBuckets.merge(tuple.get(0, Number.class).longValue(), tuple.get(1, Long.class), Long::sum));
+
+        return priceBuckets;
+    }
+
+    private static double priceRange(List<CategoryCount> categoryCounts) {
+        DoubleSummaryStatistics prices = categoryCounts.stream()
+                .flatMapToDouble(categoryCount -> DoubleStream.of(categoryCount.minPrice(), categoryCount.maxPrice()))
+                .summaryStatistics();
+
+        return prices.getCount() == 0 ? 0.0 : prices.getMax() - prices.getMin();
+    }
+
+    private record PageKey(PageRequest pageRequest, String name, Double minPrice, Double maxPrice) {
+    }
 
-        return spec;
+    private record CategoryCount(Long categoryId, String categoryName, long count, double minPrice, double maxPrice) {
     }
 }
@@ -0,0 +1,78 @@
+package com.pt.productinventory.service.impl;
+
+import com.pt.productinventory.model.Product;
+import com.pt.productinventory.model.ProductFilter;
+import com.pt.productinventory.search.ProductNameIndex;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.util.CollectionUtils;
+
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Product filters shared by the queries of the product services. Name filters are answered from the name
+ * index when it is ready and fall back to a like predicate otherwise.
+ */
+final class ProductSpecifications {
+
+    private ProductSpecifications() {
+    }
+
+    static Specification<Product> byFilter(ProductFilter filter, ProductNameIndex productNameIndex) {
+        Specification<Product> spec = Specification.where(null);
+
+        if (filter.getName() != null) {
+            Optional<Set<Long>> candidateIds = productNameIndex.findCandidates(filter.getName());
+            spec = spec.and(candidateIds.isPresent() ? byIds(candidateIds.get()) : byNameLike(filter.getName()));
+        }
+
+        return spec.and(byAttributes(filter));
+    }
+
+    /**
+     * Same filter with the name always matched by the database. Destructive bulk statements use it, the name
+     * index is a per-process copy that can lag behind the table.
+     */
+    static Specification<Product> byFilterInDatabase(ProductFilter filter) {
+        Specification<Product> spec = Specification.where(null);
+
+        if (filter.getName() != null) {
+            spec = spec.and(byNameLike(filter.getName()));
+        }
+
+        return spec.and(byAttributes(filter));
+    }
+
+    private static Specification<Product> byAttributes(ProductFilter filter) {
+        Specification<Product> spec = Specification.where(null);
+
+        if (filter.getMinPrice() != null) {
+            spec = spec.and((root, query, criteriaBuilder) ->
+                                    criteriaBuilder.greaterThanOrEqualTo(root.get("price"), filter.getMinPrice()));
+        }
+        if (filter.getMaxPrice() != null) {
+            spec = spec.and((root, query, criteriaBuilder) ->
+                                    criteriaBuilder.lessThanOrEqualTo(root.get("price"), filter.getMaxPrice()));
+        }
+        if (!CollectionUtils.isEmpty(filter.getCategoryIds())) {
+            spec = spec.and((root, query, criteriaBuilder) ->
+                                    root.get("category").get("id").in(filter.getCategoryIds()));
+        }
+        if (filter.getMinQuantity() != null) {
+            spec = spec.and((root, query, criteriaBuilder) ->
+                                    criteriaBuilder.greaterThanOrEqualTo(root.get("quantity"), filter.getMinQuantity()));
+        }
+
+        return spec;
+    }
+
+    private static Specification<Product> byNameLike(String name) {
+        return (root, query, criteriaBuilder) -> criteriaBuilder.like(root.get("name"), "%" + name + "%");
+    }
+
+    private static Specification<Product> byIds(Set<Long> ids) {
+        return (root, query, criteriaBuilder) -> ids.isEmpty()
+                                                 ? criteriaBuilder.disjunction()
+                                                 : root.get("id").in(ids);
+    }
+}
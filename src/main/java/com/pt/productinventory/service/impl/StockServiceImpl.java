@@ -0,0 +1,95 @@
+package com.pt.productinventory.service.impl;
+
+import com.pt.productinventory.cache.CacheNames;
+import com.pt.productinventory.cache.VersionedCache;
+import com.pt.productinventory.error.exceptions.IllegalParameterException;
+import com.pt.productinventory.error.exceptions.InsufficientStockException;
+import com.pt.productinventory.error.exceptions.ObjectNotFoundException;
+import com.pt.productinventory.model.StockLevel;
+import com.pt.productinventory.model.dto.StockResponseDto;
+import com.pt.productinventory.model.enums.ChangeEntityType;
+import com.pt.productinventory.model.enums.ChangeOperation;
+import com.pt.productinventory.repository.ProductRepository;
+import com.pt.productinventory.service.ChangeEventService;
+import com.pt.productinventory.service.StockService;
+import io.micrometer.core.annotation.Timed;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Objects;
+
+/**
+ * Changes stock with a single conditional update, so concurrent reservations on the same product
+ * never read-modify-write the entity and can't fail on optimistic locking.
+ */
+@Service
+@Timed("inventory.service")
+@ConditionalOnProperty(name = "inventory.stock.mode", havingValue = "database", matchIfMissing = true)
+@AllArgsConstructor
+@Slf4j
+public class StockServiceImpl implements StockService {
+
+    private final ProductRepository productRepository;
+    private final VersionedCache versionedCache;
+    private final ChangeEventService changeEventService;
+    private final String className = this.getClass().getSimpleName();
+
+    @Override
+    @Transactional
+    public StockResponseDto reserve(Long productId, Integer quantity) {
+        log.debug("calling reserve method in {}", className);
+
+        validatePositive(quantity);
+
+        return adjustQuantity(productId, -quantity);
+    }
+
+    @Override
+    @Transactional
+    public StockResponseDto release(Long productId, Integer quantity) {
+        log.debug("calling release method in {}", className);
+
+        validatePositive(quantity);
+
+        return adjustQuantity(productId, quantity);
+    }
+
+    @Override
+    @Transactional
+    public StockResponseDto adjust(Long productId, Integer delta) {
+        log.debug("calling adjust method in {}", className);
+
+        if (Objects.isNull(delta)) {
+            throw new IllegalParameterException("Delta parameter is not valid: " + delta);
+        }
+
+        return adjustQuantity(productId, delta);
+    }
+
+    private StockResponseDto adjustQuantity(Long productId, int delta) {
+        if (productRepository.adjustQuantity(productId, delta) == 0) {
+            if (!productRepository.existsById(productId)) {
+                throw new ObjectNotFoundException("Product not found with id: " + productId);
+            }
+            throw new InsufficientStockException("Insufficient stock for product with id: " + productId);
+        }
+        // read back in the same transaction, the version is the one the conditional update wrote
+        StockLevel stockLevel = productRepository.findStockLevelById(productId);
+        versionedCache.evict(CacheNames.PRODUCTS, productId, stockLevel::version);
+        changeEventService.record(ChangeEntityType.PRODUCT, productId, ChangeOperation.UPDATED);
+        if (Objects.nonNull(stockLevel.categoryName())) {
+            versionedCache.evict(CacheNames.CATEGORIES_BY_NAME, stockLevel.categoryName());
+        }
+
+        return new StockResponseDto(productId, stockLevel.quantity());
+    }
+
+    private void validatePositive(Integer quantity) {
+        if (Objects.isNull(quantity) || quantity < 1) {
+            throw new IllegalParameterException("Quantity parameter is not valid: " + quantity);
+        }
+    }
+}
@@ -0,0 +1,191 @@
+package com.pt.productinventory.stock;
+
+import com.pt.productinventory.cache.CacheNames;
+import com.pt.productinventory.cache.VersionedCache;
+import com.pt.productinventory.error.exceptions.ObjectNotFoundException;
+import com.pt.productinventory.model.ChangeNotification;
+import com.pt.productinventory.model.ProductVersion;
+import com.pt.productinventory.model.StockLevel;
+import com.pt.productinventory.model.enums.ChangeEntityType;
+import com.pt.productinventory.model.enums.ChangeOperation;
+import com.pt.productinventory.repository.ProductRepository;
+import com.pt.productinventory.service.ChangeEventService;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Serves stock changes from in-memory counters and writes the aggregated deltas behind to the product table.
+ * Counters are loaded from the database on first use, so after a restart they recover from the last flushed
+ * state; at most one flush interval of changes is lost if the process dies. Writes of this instance that change
+ * stock outside the engine, e.g. a product update, move the counter onto the written quantity after they commit.
+ */
+@Component
+@ConditionalOnProperty(name = "inventory.stock.mode", havingValue = "memory")
+@Slf4j
+public class StockEngine {
+
+    private static final String FLUSH_SQL = "update product set quantity = quantity + ?, version = version + 1 where id = ?";
+    private static final int FLUSH_BATCH_SIZE = 500;
+
+    private final ConcurrentMap<Long, StripedStockCounter> counters = new ConcurrentHashMap<>();
+    // held while flushing and while reading a quantity to rebase on, so the read never misses a drained delta
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final ProductRepository productRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final VersionedCache versionedCache;
+    private final ChangeEventService changeEventService;
+    private final int stripes;
+    private final String className = this.getClass().getSimpleName();
+
+    public StockEngine(ProductRepository productRepository,
+                       JdbcTemplate jdbcTemplate,
+                       TransactionTemplate transactionTemplate,
+                       VersionedCache versionedCache,
+                       ChangeEventService changeEventService,
+                       @Value("${inventory.stock.stripes:4}") int stripes) {
+        this.productRepository = productRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.versionedCache = versionedCache;
+        this.changeEventService = changeEventService;
+        this.stripes = stripes;
+    }
+
+    public boolean tryReserve(Long productId, long quantity) {
+        return counter(productId).tryReserve(quantity);
+    }
+
+    /**
+     * Releases unless the quantity would leave the range of the product's quantity column.
+     */
+    public boolean tryRelease(Long productId, long quantity) {
+        return counter(productId).tryRelease(quantity, Integer.MAX_VALUE);
+    }
+
+    public long available(Long productId) {
+        return counter(productId).available();
+    }
+
+    @Scheduled(fixedDelayString = "${inventory.stock.flush-interval-ms:500}")
+    public void flush() {
+        flushLock.lock();
+        try {
+            List<Object[]> deltas = new ArrayList<>();
+            counters.forEach((productId, counter) -> {
+                long delta = counter.drainPendingDelta();
+                if (delta != 0) {
+                    deltas.add(new Object[]{delta, productId});
+                }
+            });
+
+            if (deltas.isEmpty()) {
+                return;
+            }
+
+            for (int from = 0; from < deltas.size(); from += FLUSH_BATCH_SIZE) {
+                flushBatch(deltas.subList(from, Math.min(from + FLUSH_BATCH_SIZE, deltas.size())));
+            }
+            versionedCache.clear(CacheNames.CATEGORIES_BY_NAME);
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * Rebases the counters of products written outside the engine and drops those of deleted products.
+     * The engine's own flushes commit while holding the flush lock and are skipped.
+     */
+    @TransactionalEventListener
+    public void onChange(ChangeNotification changeNotification) {
+        if (changeNotification.entityType() != ChangeEntityType.PRODUCT || flushLock.isHeldByCurrentThread()) {
+            return;
+        }
+
+        changeNotification.entityIds().forEach(productId -> {
+            if (changeNotification.operation() == ChangeOperation.DELETED) {
+                counters.remove(productId);
+            } else {
+                counters.computeIfPresent(productId, this::rebase);
+            }
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        log.debug("calling shutdown method in {}", className);
+
+        flush();
+    }
+
+    private void flushBatch(List<Object[]> batch) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                List<Long> productIds = batch.stream().map(delta -> (Long) delta[1]).toList();
+                jdbcTemplate.batchUpdate(FLUSH_SQL, batch);
+                // the flush bumped the versions, the tombstones carry the written ones
+                productRepository.findVersionsByIdIn(productIds)
+                        .forEach(productVersion -> versionedCache.evict(CacheNames.PRODUCTS,
+                                                                        productVersion.id(),
+                                                                        productVersion::version));
+                changeEventService.recordAll(ChangeEntityType.PRODUCT, productIds, ChangeOperation.UPDATED);
+            });
+        } catch (DataAccessException | TransactionException e) {
+            // keep the deltas so the next flush retries them
+            log.error("Error: Stock flush of {} products failed", batch.size(), e);
+            batch.forEach(delta -> {
+                StripedStockCounter counter = counters.get((Long) delta[1]);
+                if (Objects.nonNull(counter)) {
+                    counter.restorePendingDelta((Long) delta[0]);
+                }
+            });
+        }
+    }
+
+    private StripedStockCounter counter(Long productId) {
+        StripedStockCounter counter = counters.get(productId);
+        if (Objects.nonNull(counter)) {
+            return counter;
+        }
+
+        return counters.computeIfAbsent(productId, id -> {
+            StockLevel stockLevel = productRepository.findStockLevelById(id);
+            if (Objects.isNull(stockLevel)) {
+                throw new ObjectNotFoundException("Product not found with id: " + id);
+            }
+
+            return new StripedStockCounter(stockLevel.quantity(), stripes);
+        });
+    }
+
+    private StripedStockCounter rebase(Long productId, StripedStockCounter counter) {
+        flushLock.lock();
+        try {
+            StockLevel stockLevel = productRepository.findStockLevelById(productId);
+            if (Objects.isNull(stockLevel)) {
+                return null;
+            }
+
+            counter.rebase(stockLevel.quantity());
+            return counter;
+        } finally {
+            flushLock.unlock();
+        }
+    }
+}
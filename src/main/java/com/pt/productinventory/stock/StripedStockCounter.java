@@ -0,0 +1,154 @@
+package com.pt.productinventory.stock;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Stock of a single product split over a few cache line padded cells. Threads reserve from their home
+ * cell with a CAS floor check and only fall back to consolidating all cells under the monitor when no
+ * single cell holds enough, so concurrent reservations on a hot product rarely touch the same word.
+ * The delta to flush is the difference between the cells and the quantity last written to the database.
+ * Cells never go negative; stock a rebase took away beyond what they hold is kept as a separate shortfall
+ * that only the consolidated path pays off.
+ */
+final class StripedStockCounter {
+
+    // 8 longs keep every cell on its own 64 byte cache line
+    private static final int PADDING = 8;
+
+    private final int stripeMask;
+    private final AtomicLongArray cells;
+    // written under the monitor, read by the lock-free path after its CAS
+    private volatile long shortfall;
+    private volatile boolean rebasing;
+    // quantity the database holds as far as this counter knows, guarded by the monitor
+    private long persistedQuantity;
+
+    StripedStockCounter(long initialQuantity, int stripes) {
+        int stripeCount = Integer.highestOneBit(Math.max(1, stripes));
+        this.stripeMask = stripeCount - 1;
+        this.cells = new AtomicLongArray(stripeCount * PADDING);
+        this.cells.set(0, initialQuantity);
+        this.persistedQuantity = initialQuantity;
+    }
+
+    long available() {
+        long total = -shortfall;
+        for (int stripe = 0; stripe <= stripeMask; stripe++) {
+            total += cells.get(index(stripe));
+        }
+
+        return total;
+    }
+
+    boolean tryReserve(long quantity) {
+        int home = homeStripe();
+        if (shortfall == 0) {
+            for (int offset = 0; offset <= stripeMask; offset++) {
+                int index = index((home + offset) & stripeMask);
+                if (tryTake(index, quantity)) {
+                    // a rebase may have left a shortfall after the check above, then the taken stock wasn't there
+                    if (!rebasing && shortfall == 0) {
+                        return true;
+                    }
+                    cells.addAndGet(index, quantity);
+                    break;
+                }
+            }
+        }
+
+        return tryReserveConsolidated(home, quantity);
+    }
+
+    void release(long quantity) {
+        cells.addAndGet(index(homeStripe()), quantity);
+    }
+
+    /**
+     * Releases unless the stock would exceed the limit. Runs under the monitor so concurrent releases can't
+     * pass the check together; reservations in the meantime only lower the total.
+     */
+    synchronized boolean tryRelease(long quantity, long maxQuantity) {
+        if (available() > maxQuantity - quantity) {
+            return false;
+        }
+
+        release(quantity);
+        return true;
+    }
+
+    /**
+     * Takes the change since the last drain. Every cell update is single-word, so an update the sum misses
+     * is part of the next drain and none is counted twice.
+     */
+    synchronized long drainPendingDelta() {
+        long total = available();
+        long delta = total - persistedQuantity;
+        persistedQuantity = total;
+
+        return delta;
+    }
+
+    synchronized void restorePendingDelta(long delta) {
+        persistedQuantity -= delta;
+    }
+
+    /**
+     * Moves the counter onto a quantity written to the database outside of it, e.g. by a product update.
+     * Changes that weren't flushed yet are kept on top of it; when they exceed the new quantity the
+     * difference becomes the shortfall and blocks reservations until enough stock is released.
+     */
+    synchronized void rebase(long quantity) {
+        // set before the cells are emptied, so a reservation taking stock released meanwhile rolls back
+        rebasing = true;
+        long total = quantity + takeAll() - shortfall - persistedQuantity;
+        persistedQuantity = quantity;
+        shortfall = Math.max(-total, 0);
+        rebasing = false;
+        if (total > 0) {
+            cells.addAndGet(0, total);
+        }
+    }
+
+    private boolean tryTake(int index, long quantity) {
+        long current = cells.get(index);
+        while (current >= quantity) {
+            long witness = cells.compareAndExchange(index, current, current - quantity);
+            if (witness == current) {
+                return true;
+            }
+            current = witness;
+        }
+
+        return false;
+    }
+
+    private synchronized boolean tryReserveConsolidated(int home, long quantity) {
+        long total = takeAll() - shortfall;
+
+        boolean reserved = total >= quantity;
+        long remaining = reserved ? total - quantity : total;
+        shortfall = Math.max(-remaining, 0);
+        if (remaining > 0) {
+            cells.addAndGet(index(home), remaining);
+        }
+
+        return reserved;
+    }
+
+    private long takeAll() {
+        long total = 0;
+        for (int stripe = 0; stripe <= stripeMask; stripe++) {
+            total += cells.getAndSet(index(stripe), 0);
+        }
+
+        return total;
+    }
+
+    private int homeStripe() {
+        return (int) Thread.currentThread().threadId() & stripeMask;
+    }
+
+    private static int index(int stripe) {
+        return stripe * PADDING;
+    }
+}
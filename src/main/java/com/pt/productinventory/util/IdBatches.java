@@ -0,0 +1,62 @@
+package com.pt.productinventory.util;
+
+import com.pt.productinventory.error.exceptions.IllegalParameterException;
+import com.pt.productinventory.model.dto.BatchResponseDto;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+
+public final class IdBatches {
+
+    public static final int MAX_IDS = 1000;
+
+    private static final int IN_CLAUSE_SIZE = 500;
+
+    private IdBatches() {
+    }
+
+    /**
+     * Returns the requested ids without duplicates in request order.
+     */
+    public static List<Long> distinct(List<Long> ids) {
+        if (Objects.isNull(ids) || ids.isEmpty() || ids.size() > MAX_IDS || ids.contains(null)) {
+            throw new IllegalParameterException("Ids parameter is not valid, expected 1 to " + MAX_IDS + " ids");
+        }
+
+        return List.copyOf(new LinkedHashSet<>(ids));
+    }
+
+    /**
+     * Runs the finder over slices of the ids, so no query binds more than {@value #IN_CLAUSE_SIZE} parameters.
+     */
+    public static <T> List<T> findInChunks(List<Long> ids, Function<List<Long>, List<T>> finder) {
+        List<T> found = new ArrayList<>(ids.size());
+        for (int from = 0; from < ids.size(); from += IN_CLAUSE_SIZE) {
+            found.addAll(finder.apply(ids.subList(from, Math.min(from + IN_CLAUSE_SIZE, ids.size()))));
+        }
+
+        return found;
+    }
+
+    /**
+     * Orders the found values as requested and lists the ids that were not found.
+     */
+    public static <T> BatchResponseDto<T> toBatchResponse(List<Long> ids, Map<Long, T> found) {
+        List<T> content = new ArrayList<>(found.size());
+        List<Long> missingIds = new ArrayList<>();
+        for (Long id : ids) {
+            T value = found.get(id);
+            if (Objects.nonNull(value)) {
+                content.add(value);
+            } else {
+                missingIds.add(id);
+            }
+        }
+
+        return new BatchResponseDto<>(content, missingIds);
+    }
+}
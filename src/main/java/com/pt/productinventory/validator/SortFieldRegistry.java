@@ -0,0 +1,187 @@
+package com.pt.productinventory.validator;
+
+import com.pt.productinventory.error.exceptions.IllegalParameterException;
+import com.pt.productinventory.model.enums.SortDirection;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.metamodel.Attribute;
+import jakarta.persistence.metamodel.EntityType;
+import jakarta.persistence.metamodel.SingularAttribute;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Sortable fields of every entity, read once from the JPA metamodel with their {@link Sort}s prebuilt,
+ * so resolving a sortBy parameter is a map lookup. Fields whose column doesn't lead any index are reported
+ * at startup and, with {@code inventory.sort.indexed-only}, not accepted at all. Keyset sorts only take non-null
+ * basic fields, a seek predicate can't compare nulls or associations.
+ */
+@Component
+@Slf4j
+public class SortFieldRegistry {
+
+    private static final String ID = "id";
+
+    private final Map<Class<?>, Map<String, SortField>> sortFields;
+
+    public SortFieldRegistry(EntityManagerFactory entityManagerFactory,
+                             DataSource dataSource,
+                             @Value("${inventory.sort.indexed-only:false}") boolean indexedOnly) {
+        Map<Class<?>, Map<String, SortField>> entitySortFields = new HashMap<>();
+
+        for (EntityType<?> entityType : entityManagerFactory.getMetamodel().getEntities()) {
+            Set<String> indexedColumns = findLeadingIndexColumns(dataSource, entityType.getName());
+            Set<String> notNullColumns = findNotNullColumns(dataSource, entityType.getName());
+            Map<String, SortField> fields = new HashMap<>();
+            List<String> unindexedFields = new ArrayList<>();
+
+            for (SingularAttribute<?, ?> attribute : entityType.getDeclaredSingularAttributes()) {
+                boolean indexed = indexedColumns.isEmpty() || indexedColumns.contains(toColumnName(attribute));
+                if (!indexed) {
+                    unindexedFields.add(attribute.getName());
+                }
+                if (indexed || !indexedOnly) {
+                    boolean keyset = attribute.getPersistentAttributeType() == Attribute.PersistentAttributeType.BASIC
+                            && (attribute.isId() || !attribute.isOptional() || notNullColumns.contains(toColumnName(attribute)));
+                    fields.put(attribute.getName(), SortField.of(attribute.getName(), keyset));
+                }
+            }
+
+            if (!unindexedFields.isEmpty()) {
+                log.warn("Sort fields without index support for {}: {}", entityType.getName(), unindexedFields);
+            }
+            entitySortFields.put(entityType.getJavaType(), Collections.unmodifiableMap(fields));
+        }
+
+        this.sortFields = Collections.unmodifiableMap(entitySortFields);
+    }
+
+    public Sort resolveSort(Class<?> clazz, String sortBy, SortDirection sortDirection) {
+        return getSortField(clazz, sortBy).sort(sortDirection);
+    }
+
+    /**
+     * Resolves several sort fields in order into one {@link Sort}, fields without a matching direction are ascending.
+     * The id is appended as the last key so that pages of equal sort values stay stable.
+     */
+    public Sort resolveSort(Class<?> clazz, List<String> sortBy, List<SortDirection> sortDirections) {
+        Sort sort = Sort.unsorted();
+
+        for (int i = 0; i < sortBy.size(); i++) {
+            SortDirection sortDirection = i < sortDirections.size() ? sortDirections.get(i) : SortDirection.ASC;
+            sort = sort.and(resolveSort(clazz, sortBy.get(i), sortDirection));
+        }
+
+        return Objects.isNull(sort.getOrderFor(ID)) ? sort.and(Sort.by(ID).ascending()) : sort;
+    }
+
+    /**
+     * Same as {@link #resolveSort} with the id tiebreaker appended, as required for keyset pagination.
+     */
+    public Sort resolveKeysetSort(Class<?> clazz, String sortBy, SortDirection sortDirection) {
+        SortField sortField = getSortField(clazz, sortBy);
+        if (!sortField.keyset()) {
+            throw new IllegalParameterException("Field can't be used for scrolling: " + sortBy);
+        }
+
+        return sortField.keysetSort(sortDirection);
+    }
+
+    private SortField getSortField(Class<?> clazz, String sortBy) {
+        SortField sortField = sortFields.getOrDefault(clazz, Map.of()).get(sortBy);
+        if (Objects.isNull(sortField)) {
+            log.error("No field found with name: {} for class {}", sortBy, clazz.getName());
+            throw new IllegalParameterException("No field found with name: " + sortBy);
+        }
+
+        return sortField;
+    }
+
+    private static String toColumnName(SingularAttribute<?, ?> attribute) {
+        String columnName = attribute.getName().replaceAll("([a-z0-9])([A-Z])", "$1_$2").toLowerCase(Locale.ROOT);
+
+        // to one associations are stored in their join column
+        return attribute.isAssociation() ? columnName + "_" + ID : columnName;
+    }
+
+    private static Set<String> findLeadingIndexColumns(DataSource dataSource, String tableName) {
+        Set<String> columns = new HashSet<>();
+
+        try (Connection connection = dataSource.getConnection()) {
+            DatabaseMetaData metaData = connection.getMetaData();
+            String table = metaData.storesUpperCaseIdentifiers() ? tableName.toUpperCase(Locale.ROOT) : tableName;
+
+            try (ResultSet indexInfo = metaData.getIndexInfo(connection.getCatalog(), null, table, false, true)) {
+                while (indexInfo.next()) {
+                    if (indexInfo.getShort("ORDINAL_POSITION") == 1) {
+                        columns.add(indexInfo.getString("COLUMN_NAME").toLowerCase(Locale.ROOT));
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            // without metadata every field is treated as indexed
+            log.warn("Could not read index metadata for table {}", tableName, e);
+        }
+
+        return columns;
+    }
+
+    private static Set<String> findNotNullColumns(DataSource dataSource, String tableName) {
+        Set<String> columns = new HashSet<>();
+
+        try (Connection connection = dataSource.getConnection()) {
+            DatabaseMetaData metaData = connection.getMetaData();
+            String table = metaData.storesUpperCaseIdentifiers() ? tableName.toUpperCase(Locale.ROOT) : tableName;
+
+            try (ResultSet columnInfo = metaData.getColumns(connection.getCatalog(), null, table, null)) {
+                while (columnInfo.next()) {
+                    if (columnInfo.getInt("NULLABLE") == DatabaseMetaData.columnNoNulls) {
+                        columns.add(columnInfo.getString("COLUMN_NAME").toLowerCase(Locale.ROOT));
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            // without metadata only fields the mapping declares non-optional are used for keyset sorts
+            log.warn("Could not read column metadata for table {}", tableName, e);
+        }
+
+        return columns;
+    }
+
+    private record SortField(Sort ascending, Sort descending, Sort keysetAscending, Sort keysetDescending, boolean keyset) {
+
+        static SortField of(String fieldName, boolean keyset) {
+            Sort ascending = Sort.by(fieldName).ascending();
+            Sort descending = Sort.by(fieldName).descending();
+
+            return ID.equals(fieldName)
+                   ? new SortField(ascending, descending, ascending, descending, keyset)
+                   : new SortField(ascending, descending,
+                                   ascending.and(Sort.by(ID).ascending()), descending.and(Sort.by(ID).descending()), keyset);
+        }
+
+        Sort sort(SortDirection sortDirection) {
+            return sortDirection == SortDirection.ASC ? ascending : descending;
+        }
+
+        Sort keysetSort(SortDirection sortDirection) {
+            return sortDirection == SortDirection.ASC ? keysetAscending : keysetDescending;
+        }
+    }
+}
@@ -1,6 +1,5 @@
 package com.pt.productinventory.validator;
 
-import com.pt.productinventory.error.exceptions.IllegalParameterException;
 import com.pt.productinventory.error.exceptions.ObjectNotFoundException;
 import jakarta.validation.ConstraintViolation;
 import jakarta.validation.ConstraintViolationException;
@@ -31,19 +30,9 @@ public class ValidatorService {
 
         Set<ConstraintViolation<T>> violations = validator.validate(t);
         if (!violations.isEmpty()) {
-            log.error("Error: Validator Constraint Validation Exception occurred! Error message: {}", violations);
+            log.warn("Error: Validator Constraint Validation Exception occurred! Violations: {}", violations.size());
+            log.debug("Constraint violations: {}", violations);
             throw new ConstraintViolationException(violations);
         }
     }
-
-    public <T> void validateClassField(Class<T> clazz, String fieldName) {
-        log.debug("calling validateField method in {}", className);
-
-        try {
-            clazz.getDeclaredField(fieldName);
-        } catch (NoSuchFieldException e) {
-            log.error("No field found with name: {} for class {}", fieldName, clazz.getName());
-            throw new IllegalParameterException("No field found with name: " + fieldName);
-        }
-    }
 }
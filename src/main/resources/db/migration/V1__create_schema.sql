@@ -0,0 +1,20 @@
+create sequence product_seq start with 1 increment by 50;
+
+create table category
+(
+    id      bigint generated by default as identity primary key,
+    name    varchar(255) not null,
+    version bigint       not null
+);
+
+create table product
+(
+    id          bigint           not null primary key,
+    name        varchar(255)     not null,
+    description varchar(255)     not null,
+    price       double precision not null,
+    quantity    integer          not null,
+    version     bigint           not null,
+    category_id bigint,
+    constraint fk_product_category foreign key (category_id) references category (id)
+);
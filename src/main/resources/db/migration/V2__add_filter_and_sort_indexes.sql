@@ -0,0 +1,10 @@
+-- category search by name and unique category names
+create unique index uq_category_name on category (name);
+
+-- category filter and category listing ordered by product name, also backs the foreign key
+create index idx_product_category_name on product (category_id, name);
+
+-- sort columns with the id tiebreaker used by keyset pagination, price also serves the price range filter
+create index idx_product_name_id on product (name, id);
+create index idx_product_price_id on product (price, id);
+create index idx_product_quantity_id on product (quantity, id);
@@ -0,0 +1,14 @@
+-- transactional outbox read by the /changes feed in id order
+create sequence change_event_seq start with 1 increment by 50;
+
+create table change_event
+(
+    id          bigint                   not null primary key,
+    entity_type varchar(32)              not null,
+    entity_id   bigint                   not null,
+    operation   varchar(32)              not null,
+    created_at  timestamp with time zone not null
+);
+
+-- retention purge
+create index idx_change_event_created_at on change_event (created_at);
@@ -0,0 +1,16 @@
+-- change events are numbered when their transaction commits, the single row hands out the positions
+-- and its row lock keeps the numbering in commit order
+create table change_feed_position
+(
+    id            integer not null primary key,
+    last_position bigint  not null
+);
+
+alter table change_event add column feed_position bigint;
+update change_event set feed_position = id;
+alter table change_event alter column feed_position set not null;
+
+create unique index uq_change_event_feed_position on change_event (feed_position);
+
+insert into change_feed_position (id, last_position)
+select 1, coalesce(max(feed_position), 0) from change_event;
@@ -0,0 +1,3 @@
+-- writers insert change events without a position, the relay numbers the committed ones afterwards,
+-- so only the relay locks the change_feed_position row
+alter table change_event alter column feed_position drop not null;
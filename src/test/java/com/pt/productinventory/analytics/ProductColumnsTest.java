@@ -0,0 +1,183 @@
+package com.pt.productinventory.analytics;
+
+import com.pt.productinventory.model.ProductRow;
+import com.pt.productinventory.model.dto.ProductColumnsDto;
+import com.pt.productinventory.model.dto.ProductStatsDto;
+import com.pt.productinventory.model.enums.ColumnSortField;
+import com.pt.productinventory.model.enums.SortDirection;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ProductColumnsTest {
+
+    private static final double ANY_MIN = Double.NEGATIVE_INFINITY;
+    private static final double ANY_MAX = Double.POSITIVE_INFINITY;
+
+    ProductColumns columns;
+
+    @BeforeEach
+    void initData() {
+        ProductColumns.Builder builder = new ProductColumns.Builder(4);
+        builder.add(1L, 10.0, 5, 100L);
+        builder.add(2L, 5.0, 3, null);
+        builder.add(3L, 10.0, 1, 200L);
+        builder.add(4L, 20.0, 3, 100L);
+        builder.add(5L, 10.0, 8, null);
+        columns = builder.build();
+    }
+
+    @Test
+    void should_FindPricePositions_DuplicatePrices() {
+        // price order: 5.0, 10.0, 10.0, 10.0, 20.0
+        assertEquals(0, columns.firstPricePosition(5.0, false));
+        assertEquals(1, columns.firstPricePosition(5.0, true));
+        assertEquals(1, columns.firstPricePosition(10.0, false));
+        assertEquals(4, columns.firstPricePosition(10.0, true));
+        assertEquals(4, columns.firstPricePosition(15.0, false));
+        assertEquals(4, columns.firstPricePosition(15.0, true));
+        assertEquals(0, columns.firstPricePosition(1.0, true));
+        assertEquals(5, columns.firstPricePosition(20.0, true));
+        assertEquals(5, columns.firstPricePosition(25.0, false));
+    }
+
+    @Test
+    void should_KeepEqualPricesInIdOrder_SelectByPrice() {
+        ProductColumnsDto ascending = columns.select(ANY_MIN, ANY_MAX, null, ColumnSortField.PRICE, SortDirection.ASC, 10);
+        ProductColumnsDto descending = columns.select(ANY_MIN, ANY_MAX, null, ColumnSortField.PRICE, SortDirection.DESC, 10);
+
+        assertArrayEquals(new long[]{2L, 1L, 3L, 5L, 4L}, ascending.getIds());
+        assertArrayEquals(new long[]{4L, 5L, 3L, 1L, 2L}, descending.getIds());
+    }
+
+    @Test
+    void should_IncludeBothBounds_SelectPriceRange() {
+        ProductColumnsDto inRange = columns.select(10.0, 10.0, null, ColumnSortField.PRICE, SortDirection.ASC, 10);
+        ProductColumnsDto limited = columns.select(5.0, 10.0, null, ColumnSortField.PRICE, SortDirection.DESC, 2);
+
+        assertArrayEquals(new long[]{1L, 3L, 5L}, inRange.getIds());
+        assertArrayEquals(new long[]{5L, 3L}, limited.getIds());
+    }
+
+    @Test
+    void should_EncodeCategoriesInFirstSeenOrder() {
+        ProductColumnsDto selected = columns.select(ANY_MIN, ANY_MAX, null, ColumnSortField.ID, SortDirection.ASC, 10);
+
+        assertArrayEquals(new Long[]{null, 100L, 200L}, selected.getCategoryDictionary());
+        assertArrayEquals(new int[]{1, 0, 2, 1, 0}, selected.getCategoryCodes());
+    }
+
+    @Test
+    void should_SelectCategoryRows_CategoryFilter() {
+        ProductColumnsDto fruit = columns.select(ANY_MIN, ANY_MAX, List.of(100L), ColumnSortField.QUANTITY, SortDirection.ASC, 10);
+        ProductColumnsDto unknown = columns.select(ANY_MIN, ANY_MAX, List.of(300L), ColumnSortField.ID, SortDirection.ASC, 10);
+
+        assertArrayEquals(new long[]{4L, 1L}, fruit.getIds());
+        assertEquals(0, unknown.getIds().length);
+        assertEquals(2L, columns.aggregate(ANY_MIN, ANY_MAX, List.of(100L, 300L)).getProductCount());
+    }
+
+    @Test
+    void should_AddCategoryToDictionary_Merge() {
+        SortedMap<Long, ProductRow> upserts = new TreeMap<>();
+        upserts.put(6L, new ProductRow(6L, 1.0, 1, 300L));
+
+        ProductColumns merged = columns.merge(upserts, Set.of());
+        ProductColumnsDto selected = merged.select(ANY_MIN, ANY_MAX, List.of(300L), ColumnSortField.ID, SortDirection.ASC, 10);
+
+        assertArrayEquals(new long[]{6L}, selected.getIds());
+        assertArrayEquals(new Long[]{null, 100L, 200L, 300L}, selected.getCategoryDictionary());
+        assertArrayEquals(new int[]{3}, selected.getCategoryCodes());
+    }
+
+    @Test
+    void should_MatchFreshBuild_Merge() {
+        SortedMap<Long, ProductRow> upserts = new TreeMap<>();
+        upserts.put(0L, new ProductRow(0L, 10.0, 3, 200L));
+        upserts.put(3L, new ProductRow(3L, 30.0, 0, 200L));
+        upserts.put(6L, new ProductRow(6L, 5.0, 8, null));
+
+        ProductColumns merged = columns.merge(upserts, Set.of(4L, 7L));
+
+        ProductColumns.Builder builder = new ProductColumns.Builder(5);
+        builder.add(0L, 10.0, 3, 200L);
+        builder.add(1L, 10.0, 5, 100L);
+        builder.add(2L, 5.0, 3, null);
+        builder.add(3L, 30.0, 0, 200L);
+        builder.add(5L, 10.0, 8, null);
+        builder.add(6L, 5.0, 8, null);
+        assertSameColumns(builder.build(), merged);
+        assertArrayEquals(new long[]{2L, 6L, 0L, 1L, 5L, 3L},
+                          merged.select(ANY_MIN, ANY_MAX, null, ColumnSortField.PRICE, SortDirection.ASC, 10).getIds());
+    }
+
+    @Test
+    void should_MatchFreshBuild_RandomMerges() {
+        Random random = new Random(42);
+        SortedMap<Long, ProductRow> table = new TreeMap<>();
+        ProductColumns merged = ProductColumns.EMPTY;
+
+        for (int round = 0; round < 50; round++) {
+            SortedMap<Long, ProductRow> upserts = new TreeMap<>();
+            for (int i = 0; i < 20; i++) {
+                long id = random.nextInt(200);
+                Long categoryId = random.nextInt(4) == 0 ? null : (long) random.nextInt(6);
+                upserts.put(id, new ProductRow(id, (double) random.nextInt(30), random.nextInt(10), categoryId));
+            }
+            Set<Long> deletedIds = new HashSet<>(List.of((long) random.nextInt(200), (long) random.nextInt(200)));
+            deletedIds.forEach(upserts::remove);
+
+            merged = merged.merge(upserts, deletedIds);
+            table.putAll(upserts);
+            deletedIds.forEach(table::remove);
+
+            ProductColumns.Builder builder = new ProductColumns.Builder(table.size());
+            table.values().forEach(builder::add);
+            assertSameColumns(builder.build(), merged);
+        }
+    }
+
+    @Test
+    void should_SortStably_SortRows() {
+        int[] keys = {3, 1, 3, 2, 1, 3, 0};
+        int[] rows = {6, 5, 4, 3, 2, 1, 0};
+
+        int[] sorted = ProductColumns.sortRows(rows, (leftRow, rightRow) -> Integer.compare(keys[leftRow], keys[rightRow]));
+
+        assertArrayEquals(new int[]{6, 4, 1, 3, 5, 2, 0}, sorted);
+        assertArrayEquals(new int[]{6, 5, 4, 3, 2, 1, 0}, rows);
+        assertEquals(0, ProductColumns.sortRows(new int[0], Integer::compare).length);
+    }
+
+    private void assertSameColumns(ProductColumns expected, ProductColumns actual) {
+        assertEquals(expected.size(), actual.size());
+        ProductStatsDto expectedStats = expected.aggregate(ANY_MIN, ANY_MAX, null);
+        ProductStatsDto actualStats = actual.aggregate(ANY_MIN, ANY_MAX, null);
+        assertEquals(expectedStats.getProductCount(), actualStats.getProductCount());
+        assertEquals(expectedStats.getTotalQuantity(), actualStats.getTotalQuantity());
+        assertEquals(expectedStats.getMinPrice(), actualStats.getMinPrice());
+        assertEquals(expectedStats.getMaxPrice(), actualStats.getMaxPrice());
+        assertEquals(expectedStats.getTotalStockValue(), actualStats.getTotalStockValue());
+        for (ColumnSortField sortBy : ColumnSortField.values()) {
+            for (SortDirection sortDirection : SortDirection.values()) {
+                ProductColumnsDto expectedRows = expected.select(ANY_MIN, ANY_MAX, null, sortBy, sortDirection, expected.size());
+                ProductColumnsDto actualRows = actual.select(ANY_MIN, ANY_MAX, null, sortBy, sortDirection, actual.size());
+                assertArrayEquals(expectedRows.getIds(), actualRows.getIds(), sortBy + " " + sortDirection);
+                assertArrayEquals(expectedRows.getPrices(), actualRows.getPrices());
+                assertArrayEquals(expectedRows.getQuantities(), actualRows.getQuantities());
+            }
+        }
+        for (double price = -1.0; price <= 31.0; price += 0.5) {
+            assertEquals(expected.firstPricePosition(price, false), actual.firstPricePosition(price, false));
+            assertEquals(expected.firstPricePosition(price, true), actual.firstPricePosition(price, true));
+        }
+    }
+}
@@ -0,0 +1,195 @@
+package com.pt.productinventory.cache;
+
+import com.pt.productinventory.datasource.PrimaryPinning;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class RequestCoalescerTest {
+
+    private static final String NAME = "product";
+    private static final long KEY = 1L;
+    private static final int WAITERS = 4;
+
+    private PlatformTransactionManager transactionManager;
+    private SimpleMeterRegistry meterRegistry;
+
+    CountDownLatch leaderLoading, releaseLeader;
+    AtomicInteger loads;
+
+    @BeforeEach
+    void initCoalescer() {
+        transactionManager = mock(PlatformTransactionManager.class);
+        meterRegistry = new SimpleMeterRegistry();
+        leaderLoading = new CountDownLatch(1);
+        releaseLeader = new CountDownLatch(1);
+        loads = new AtomicInteger();
+    }
+
+    @Test
+    void should_LoadOnce_ConcurrentCallersOfKey() throws Exception {
+        RequestCoalescer requestCoalescer = requestCoalescer(10_000);
+        FutureTask<String> leader = start(() -> requestCoalescer.execute(NAME, KEY, blockingLoader(() -> "Pear")));
+        assertTrue(leaderLoading.await(5, TimeUnit.SECONDS));
+
+        List<FutureTask<String>> waiters = new ArrayList<>();
+        for (int i = 0; i < WAITERS; i++) {
+            waiters.add(startWaiting(() -> requestCoalescer.execute(NAME, KEY, countingLoader("Apple"))));
+        }
+        releaseLeader.countDown();
+
+        assertEquals("Pear", leader.get(5, TimeUnit.SECONDS));
+        for (FutureTask<String> waiter : waiters) {
+            assertEquals("Pear", waiter.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(1, loads.get());
+        assertEquals(1.0, calls("leader"));
+        assertEquals((double) WAITERS, calls("coalesced"));
+        verify(transactionManager).getTransaction(argThat(TransactionDefinition::isReadOnly));
+    }
+
+    @Test
+    void should_ThrowLeaderException_Waiters() throws Exception {
+        RequestCoalescer requestCoalescer = requestCoalescer(10_000);
+        IllegalStateException failure = new IllegalStateException("query failed");
+        FutureTask<String> leader = start(() -> requestCoalescer.execute(NAME, KEY, blockingLoader(() -> {
+            throw failure;
+        })));
+        assertTrue(leaderLoading.await(5, TimeUnit.SECONDS));
+
+        FutureTask<String> waiter = startWaiting(() -> requestCoalescer.execute(NAME, KEY, countingLoader("Apple")));
+        releaseLeader.countDown();
+
+        assertSame(failure, assertThrows(ExecutionException.class, () -> leader.get(5, TimeUnit.SECONDS)).getCause());
+        assertSame(failure, assertThrows(ExecutionException.class, () -> waiter.get(5, TimeUnit.SECONDS)).getCause());
+        assertEquals(1, loads.get());
+        verify(transactionManager).rollback(any());
+    }
+
+    @Test
+    void should_LoadSeparately_WaitedLongerThanMaxWait() throws Exception {
+        RequestCoalescer requestCoalescer = requestCoalescer(50);
+        FutureTask<String> leader = start(() -> requestCoalescer.execute(NAME, KEY, blockingLoader(() -> "Pear")));
+        assertTrue(leaderLoading.await(5, TimeUnit.SECONDS));
+
+        String value = requestCoalescer.execute(NAME, KEY, countingLoader("Apple"));
+        releaseLeader.countDown();
+
+        assertEquals("Apple", value);
+        assertEquals("Pear", leader.get(5, TimeUnit.SECONDS));
+        assertEquals(2, loads.get());
+        assertEquals(1.0, calls("timeout"));
+        assertEquals(0.0, calls("coalesced"));
+    }
+
+    @Test
+    void should_NotShareFlight_PinnedAndUnpinnedCallers() throws Exception {
+        RequestCoalescer requestCoalescer = requestCoalescer(10_000);
+        FutureTask<String> leader = start(() -> requestCoalescer.execute(NAME, KEY, blockingLoader(() -> "Pear")));
+        assertTrue(leaderLoading.await(5, TimeUnit.SECONDS));
+
+        String value;
+        PrimaryPinning.pin();
+        try {
+            value = requestCoalescer.execute(NAME, KEY, countingLoader("Pear from primary"));
+        } finally {
+            PrimaryPinning.unpin();
+        }
+        releaseLeader.countDown();
+
+        assertEquals("Pear from primary", value);
+        assertEquals("Pear", leader.get(5, TimeUnit.SECONDS));
+        assertEquals(2.0, calls("leader"));
+        assertEquals(0.0, calls("timeout"));
+    }
+
+    @Test
+    void should_StartNewFlight_AfterCompletion() {
+        RequestCoalescer requestCoalescer = requestCoalescer(10_000);
+
+        assertEquals("Pear", requestCoalescer.execute(NAME, KEY, countingLoader("Pear")));
+        assertThrows(IllegalStateException.class, () -> requestCoalescer.execute(NAME, KEY, () -> {
+            throw new IllegalStateException("query failed");
+        }));
+        assertEquals("Apple", requestCoalescer.execute(NAME, KEY, countingLoader("Apple")));
+
+        assertEquals(2, loads.get());
+        assertEquals(3.0, calls("leader"));
+        assertTrue(((Map<?, ?>) Objects.requireNonNull(ReflectionTestUtils.getField(requestCoalescer, "flights"))).isEmpty());
+    }
+
+    private RequestCoalescer requestCoalescer(long maxWaitMs) {
+        return new RequestCoalescer(transactionManager, meterRegistry, true, maxWaitMs);
+    }
+
+    private Supplier<String> countingLoader(String value) {
+        return () -> {
+            loads.incrementAndGet();
+            return value;
+        };
+    }
+
+    /**
+     * Loads only once the test releases the leader, so other callers can join its flight in the meantime.
+     */
+    private Supplier<String> blockingLoader(Supplier<String> loader) {
+        return () -> {
+            loads.incrementAndGet();
+            leaderLoading.countDown();
+            try {
+                assertTrue(releaseLeader.await(5, TimeUnit.SECONDS));
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+            return loader.get();
+        };
+    }
+
+    private FutureTask<String> start(Supplier<String> call) {
+        FutureTask<String> task = new FutureTask<>(call::get);
+        new Thread(task).start();
+        return task;
+    }
+
+    /**
+     * Starts the call and returns once its thread is parked, which is when it waits for the leader's result.
+     */
+    private FutureTask<String> startWaiting(Supplier<String> call) throws InterruptedException {
+        FutureTask<String> task = new FutureTask<>(call::get);
+        Thread thread = new Thread(task);
+        thread.start();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (thread.getState() != Thread.State.TIMED_WAITING && thread.getState() != Thread.State.WAITING) {
+            assertTrue(System.nanoTime() < deadline, "caller didn't start waiting");
+            Thread.sleep(1);
+        }
+        return task;
+    }
+
+    private double calls(String outcome) {
+        Counter counter = meterRegistry.find("inventory.coalescing.calls")
+                .tag("name", NAME)
+                .tag("outcome", outcome)
+                .counter();
+
+        return Objects.isNull(counter) ? 0.0 : counter.count();
+    }
+}
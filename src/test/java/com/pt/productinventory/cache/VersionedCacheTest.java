@@ -0,0 +1,74 @@
+package com.pt.productinventory.cache;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class VersionedCacheTest {
+
+    private VersionedCache versionedCache;
+
+    @BeforeEach
+    void initCache() {
+        versionedCache = new VersionedCache(new CaffeineCacheManager(CacheNames.PRODUCTS));
+    }
+
+    @Test
+    void should_RejectValueOlderThanTombstone() {
+        versionedCache.put(CacheNames.PRODUCTS, 1L, new VersionedValue<>(3L, 1L, "Pear (fruit)"));
+
+        versionedCache.evict(CacheNames.PRODUCTS, 1L, () -> 4L);
+        versionedCache.put(CacheNames.PRODUCTS, 1L, new VersionedValue<>(3L, 1L, "Pear (fruit)"));
+
+        assertNull(versionedCache.getIfPresent(CacheNames.PRODUCTS, 1L));
+    }
+
+    @Test
+    void should_RejectValueReadBeforeRelatedWrite() {
+        versionedCache.put(CacheNames.PRODUCTS, 1L, new VersionedValue<>(3L, 1L, "Pear (fruit)"));
+
+        // the category was renamed, the product version stays the same
+        versionedCache.evict(CacheNames.PRODUCTS, 1L, () -> 3L, () -> 2L);
+        assertNull(versionedCache.getIfPresent(CacheNames.PRODUCTS, 1L));
+
+        versionedCache.put(CacheNames.PRODUCTS, 1L, new VersionedValue<>(3L, 1L, "Pear (fruit)"));
+        assertNull(versionedCache.getIfPresent(CacheNames.PRODUCTS, 1L));
+
+        versionedCache.put(CacheNames.PRODUCTS, 1L, new VersionedValue<>(3L, 2L, "Pear (fresh fruit)"));
+        assertEquals("Pear (fresh fruit)", versionedCache.getIfPresent(CacheNames.PRODUCTS, 1L));
+    }
+
+    @Test
+    void should_AcceptNewerProductVersion_WhenRelatedVersionIsLower() {
+        versionedCache.put(CacheNames.PRODUCTS, 1L, new VersionedValue<>(3L, 7L, "Pear (fruit)"));
+
+        // moving the product to another category bumps the product version
+        versionedCache.evict(CacheNames.PRODUCTS, 1L, () -> 4L);
+        versionedCache.put(CacheNames.PRODUCTS, 1L, new VersionedValue<>(4L, 1L, "Pear (groceries)"));
+
+        assertEquals("Pear (groceries)", versionedCache.getIfPresent(CacheNames.PRODUCTS, 1L));
+    }
+
+    @Test
+    void should_LoadOnlyOnce_GetCachedValue() {
+        assertEquals("Pear", versionedCache.get(CacheNames.PRODUCTS, 1L, () -> new VersionedValue<>(1L, "Pear")));
+        assertEquals("Pear", versionedCache.get(CacheNames.PRODUCTS, 1L, () -> {
+            throw new AssertionError("cached value expected");
+        }));
+    }
+
+    @Test
+    void should_KeepVersions_GetEntry() {
+        versionedCache.put(CacheNames.PRODUCTS, 1L, new VersionedValue<>(3L, 2L, "Pear (fruit)"));
+
+        VersionedValue<String> cached = versionedCache.getEntry(CacheNames.PRODUCTS, 1L, () -> {
+            throw new AssertionError("cached value expected");
+        });
+
+        assertEquals(new VersionedValue<>(3L, 2L, "Pear (fruit)"), cached);
+        versionedCache.evict(CacheNames.PRODUCTS, 1L, () -> 4L);
+        assertNull(versionedCache.getEntryIfPresent(CacheNames.PRODUCTS, 1L));
+    }
+}
@@ -0,0 +1,122 @@
+package com.pt.productinventory.datasource;
+
+import com.pt.productinventory.model.dto.CategoryRequestDto;
+import com.pt.productinventory.service.CategoryService;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@ActiveProfiles("replicas")
+@AutoConfigureMockMvc
+public class ReplicaRoutingTest {
+
+    private static final String PRIMARY = ReplicaRoutingDataSource.PRIMARY;
+    private static final String FIRST_REPLICA = "replica-1";
+    private static final String SECOND_REPLICA = "replica-2";
+
+    @Autowired
+    private CategoryService categoryService;
+    @Autowired
+    private MeterRegistry meterRegistry;
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void should_SpreadReadOnlyCallsOverReplicas() {
+        Map<String, Double> before = routedConnections();
+
+        categoryService.findAll(false);
+        categoryService.findAll(false);
+
+        Map<String, Double> routed = routedSince(before);
+        assertEquals(0.0, routed.get(PRIMARY));
+        assertEquals(1.0, routed.get(FIRST_REPLICA));
+        assertEquals(1.0, routed.get(SECOND_REPLICA));
+    }
+
+    @Test
+    void should_SendWritesToPrimary() {
+        Map<String, Double> before = routedConnections();
+        long primaryAcquired = acquiredConnections(PRIMARY);
+        long firstReplicaAcquired = acquiredConnections(FIRST_REPLICA);
+        long secondReplicaAcquired = acquiredConnections(SECOND_REPLICA);
+
+        categoryService.save(new CategoryRequestDto("replica-routing-" + UUID.randomUUID()));
+
+        // writes take the primary pool directly, the routing data source is only asked for read-only connections
+        assertEquals(Map.of(PRIMARY, 0.0, FIRST_REPLICA, 0.0, SECOND_REPLICA, 0.0), routedSince(before));
+        assertTrue(acquiredConnections(PRIMARY) > primaryAcquired);
+        assertEquals(firstReplicaAcquired, acquiredConnections(FIRST_REPLICA));
+        assertEquals(secondReplicaAcquired, acquiredConnections(SECOND_REPLICA));
+    }
+
+    @Test
+    void should_PinReadsToPrimary_AfterWrite() throws Exception {
+        Cookie primaryUntil = mockMvc.perform(post("/api/v1/category")
+                                                      .contentType(MediaType.APPLICATION_JSON)
+                                                      .content("{\"name\": \"replica-pinning-" + UUID.randomUUID() + "\"}"))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getCookie(ReadYourWritesFilter.COOKIE_NAME);
+        assertNotNull(primaryUntil);
+        Map<String, Double> before = routedConnections();
+
+        mockMvc.perform(get("/api/v1/category").param("includeProducts", "false").cookie(primaryUntil))
+                .andExpect(status().isOk());
+
+        Map<String, Double> routed = routedSince(before);
+        assertEquals(1.0, routed.get(PRIMARY));
+        assertEquals(0.0, routed.get(FIRST_REPLICA) + routed.get(SECOND_REPLICA));
+    }
+
+    @Test
+    void should_ReadFromReplica_ExpiredPinningCookie() throws Exception {
+        Cookie expired = new Cookie(ReadYourWritesFilter.COOKIE_NAME, Long.toString(System.currentTimeMillis() - 1));
+        Map<String, Double> before = routedConnections();
+
+        mockMvc.perform(get("/api/v1/category").param("includeProducts", "false").cookie(expired))
+                .andExpect(status().isOk());
+
+        Map<String, Double> routed = routedSince(before);
+        assertEquals(0.0, routed.get(PRIMARY));
+        assertEquals(1.0, routed.get(FIRST_REPLICA) + routed.get(SECOND_REPLICA));
+    }
+
+    private Map<String, Double> routedConnections() {
+        return Stream.of(PRIMARY, FIRST_REPLICA, SECOND_REPLICA)
+                .collect(Collectors.toMap(pool -> pool, pool -> meterRegistry.get("inventory.datasource.read.connections")
+                        .tag("pool", pool)
+                        .counter()
+                        .count()));
+    }
+
+    private Map<String, Double> routedSince(Map<String, Double> before) {
+        return routedConnections().entrySet().stream()
+                .collect(Collectors.toMap(Map.Entry::getKey, entry -> entry.getValue() - before.get(entry.getKey())));
+    }
+
+    private long acquiredConnections(String pool) {
+        return meterRegistry.get("hikaricp.connections.acquire")
+                .tag("pool", pool)
+                .timer()
+                .count();
+    }
+}
@@ -0,0 +1,51 @@
+package com.pt.productinventory.error;
+
+import org.hibernate.exception.ConstraintViolationException;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.sql.SQLException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ErrorHandlerTest {
+
+    private final ErrorHandler errorHandler = new ErrorHandler();
+    private final MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/v1/category");
+
+    @Test
+    void should_ReturnConflict_DuplicateCategoryName() {
+        DataIntegrityViolationException e = violation(
+                "Unique index or primary key violation: \"PUBLIC.UQ_CATEGORY_NAME_INDEX_3 ON PUBLIC.CATEGORY(NAME) VALUES ('fruit')\"",
+                "PUBLIC.UQ_CATEGORY_NAME_INDEX_3 ON PUBLIC.CATEGORY(NAME) VALUES ('fruit')");
+
+        ResponseEntity<ErrorHandler.HttpResponse> response = errorHandler.handleDataIntegrityViolationException(e, request);
+
+        assertEquals(HttpStatus.CONFLICT, response.getStatusCode());
+        assertEquals("Category with this name already exists", response.getBody().message());
+    }
+
+    @Test
+    void should_ReturnBadRequestWithoutSql_OtherViolation() {
+        DataIntegrityViolationException e = violation(
+                "NULL not allowed for column \"NAME\"; SQL statement: insert into product (name) values (?)",
+                null);
+
+        ResponseEntity<ErrorHandler.HttpResponse> response = errorHandler.handleDataIntegrityViolationException(e, request);
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        assertEquals("Request violates a data constraint", response.getBody().message());
+        assertFalse(response.getBody().message().contains("insert"));
+    }
+
+    private static DataIntegrityViolationException violation(String sqlMessage, String constraintName) {
+        SQLException sqlException = new SQLException(sqlMessage);
+        return new DataIntegrityViolationException("could not execute statement",
+                                                   new ConstraintViolationException("could not execute statement",
+                                                                                    sqlException,
+                                                                                    constraintName));
+    }
+}
@@ -0,0 +1,133 @@
+package com.pt.productinventory.mapper;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pt.productinventory.model.Category;
+import com.pt.productinventory.model.Product;
+import com.pt.productinventory.model.dto.ProductJson;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ProductJsonMapperTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ProductMapper productMapper = new ProductMapper();
+    private ProductJsonMapper productJsonMapper;
+
+    Category fruit;
+    Product apple;
+
+    @BeforeEach
+    void initData() {
+        productJsonMapper = new ProductJsonMapper(objectMapper, 100);
+        fruit = Category.builder()
+                .id(0L)
+                .name("fruit")
+                .build();
+        ReflectionTestUtils.setField(fruit, "version", 1L);
+        apple = Product.builder()
+                .id(0L)
+                .name("Apple")
+                .description("This is a non GMO apple!")
+                .price(25.99)
+                .quantity(15)
+                .category(fruit)
+                .build();
+        ReflectionTestUtils.setField(apple, "version", 1L);
+    }
+
+    @Test
+    void should_MatchProductMapper_Encode() throws Exception {
+        assertEncodedLikeProductMapper(apple);
+    }
+
+    @Test
+    void should_MatchProductMapper_EncodeWithoutCategory() throws Exception {
+        apple.setCategory(null);
+
+        assertEncodedLikeProductMapper(apple);
+        assertTrue(productJsonMapper.encode(apple).json().getValue().endsWith("\"category\":null}"));
+    }
+
+    @Test
+    void should_MatchProductMapper_EncodeBlankCategoryName() throws Exception {
+        fruit.setName("  ");
+
+        assertEncodedLikeProductMapper(apple);
+    }
+
+    @Test
+    void should_MatchProductMapper_EncodeSpecialCharacters() throws Exception {
+        apple.setName("Apple \"Pink Lady\" \\ 🍎");
+        apple.setDescription("Line one\nLine two\t</script> ünïcödé \u0001");
+        fruit.setName("fruit & \"veg\"");
+
+        assertEncodedLikeProductMapper(apple);
+    }
+
+    @Test
+    void should_MatchProductMapper_EncodeNullValues() throws Exception {
+        Product empty = Product.builder().id(1L).build();
+
+        assertEncodedLikeProductMapper(empty);
+    }
+
+    @Test
+    void should_ReuseEncoding_SameVersions() {
+        ProductJson first = productJsonMapper.toProductJson(apple);
+
+        // a write always bumps a version, so a changed row behind the same versions isn't expected
+        apple.setName("Pear");
+
+        assertSame(first, productJsonMapper.toProductJson(apple));
+    }
+
+    @Test
+    void should_EncodeAgain_ProductVersionChanged() {
+        ProductJson first = productJsonMapper.toProductJson(apple);
+
+        apple.setName("Pear");
+        ReflectionTestUtils.setField(apple, "version", 2L);
+        ProductJson second = productJsonMapper.toProductJson(apple);
+
+        assertNotSame(first, second);
+        assertTrue(second.json().getValue().contains("\"name\":\"Pear\""));
+    }
+
+    @Test
+    void should_EncodeAgain_CategoryVersionChanged() {
+        ProductJson first = productJsonMapper.toProductJson(apple);
+
+        fruit.setName("fresh fruit");
+        ReflectionTestUtils.setField(fruit, "version", 2L);
+        ProductJson second = productJsonMapper.toProductJson(apple);
+
+        assertNotSame(first, second);
+        assertTrue(second.json().getValue().contains("\"category\":\"fresh fruit\""));
+    }
+
+    @Test
+    void should_EncodeAgain_CategoryChanged() {
+        ProductJson first = productJsonMapper.toProductJson(apple);
+
+        Category groceries = Category.builder()
+                .id(1L)
+                .name("groceries")
+                .build();
+        ReflectionTestUtils.setField(groceries, "version", 1L);
+        apple.setCategory(groceries);
+        ProductJson second = productJsonMapper.toProductJson(apple);
+
+        assertNotSame(first, second);
+        assertTrue(second.json().getValue().contains("\"category\":\"groceries\""));
+    }
+
+    private void assertEncodedLikeProductMapper(Product product) throws Exception {
+        String expected = objectMapper.writeValueAsString(productMapper.toProductResponseDto(product));
+
+        assertEquals(expected, productJsonMapper.encode(product).json().getValue());
+        assertEquals(expected, objectMapper.writeValueAsString(productJsonMapper.toProductJson(product)));
+    }
+}
@@ -0,0 +1,111 @@
+package com.pt.productinventory.repository;
+
+import com.pt.productinventory.model.Category;
+import com.pt.productinventory.model.Product;
+import com.pt.productinventory.model.dto.CategorySummaryDto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+public class CategoryRepositoryTest {
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+    @Autowired
+    private ProductRepository productRepository;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    String suffix;
+    Category fruit, hardware, empty;
+
+    @BeforeEach
+    void initData() {
+        suffix = UUID.randomUUID().toString();
+        transactionTemplate.executeWithoutResult(status -> {
+            fruit = categoryRepository.save(Category.builder().name("stats-fruit-" + suffix).build());
+            hardware = categoryRepository.save(Category.builder().name("stats-hardware-" + suffix).build());
+            empty = categoryRepository.save(Category.builder().name("stats-empty-" + suffix).build());
+            saveProduct("apple", 2.0, 10, fruit);
+            saveProduct("pear", 3.0, 4, fruit);
+            saveProduct("plum", 7.0, 0, fruit);
+            saveProduct("headphones", 50.0, 2, hardware);
+            saveProduct("gift card", 25.0, 100, null);
+        });
+    }
+
+    @Test
+    void should_AggregateProductsPerCategory_FindAllProductStats() {
+        Map<Long, CategorySummaryDto> summaries = findSummaries();
+
+        CategorySummaryDto fruitSummary = summaries.get(fruit.getId());
+        assertEquals(fruit.getName(), fruitSummary.getName());
+        assertEquals(3L, fruitSummary.getProductCount());
+        assertEquals(14L, fruitSummary.getTotalQuantity());
+        assertEquals(2.0, fruitSummary.getMinPrice());
+        assertEquals(7.0, fruitSummary.getMaxPrice());
+        assertEquals(4.0, fruitSummary.getAvgPrice(), 1e-9);
+        assertEquals(2.0 * 10 + 3.0 * 4 + 7.0 * 0, fruitSummary.getTotalStockValue(), 1e-9);
+
+        CategorySummaryDto hardwareSummary = summaries.get(hardware.getId());
+        assertEquals(1L, hardwareSummary.getProductCount());
+        assertEquals(2L, hardwareSummary.getTotalQuantity());
+        assertEquals(50.0, hardwareSummary.getMinPrice());
+        assertEquals(50.0, hardwareSummary.getMaxPrice());
+        assertEquals(50.0, hardwareSummary.getAvgPrice(), 1e-9);
+        assertEquals(100.0, hardwareSummary.getTotalStockValue(), 1e-9);
+    }
+
+    @Test
+    void should_KeepCategoryWithoutProducts_FindAllProductStats() {
+        Map<Long, CategorySummaryDto> summaries = findSummaries();
+
+        // the product without a category belongs to no row, the empty category still has one
+        assertEquals(3, summaries.size());
+        CategorySummaryDto emptySummary = summaries.get(empty.getId());
+        assertEquals(empty.getName(), emptySummary.getName());
+        assertEquals(0L, emptySummary.getProductCount());
+        assertEquals(0L, emptySummary.getTotalQuantity());
+        assertNull(emptySummary.getMinPrice());
+        assertNull(emptySummary.getMaxPrice());
+        assertNull(emptySummary.getAvgPrice());
+        assertEquals(0.0, emptySummary.getTotalStockValue());
+    }
+
+    @Test
+    void should_OrderByName_FindAllProductStats() {
+        List<String> names = categoryRepository.findAllProductStats().stream()
+                .map(CategorySummaryDto::getName)
+                .filter(name -> name.endsWith(suffix))
+                .toList();
+
+        assertEquals(List.of(empty.getName(), fruit.getName(), hardware.getName()), names);
+    }
+
+    private Map<Long, CategorySummaryDto> findSummaries() {
+        return categoryRepository.findAllProductStats().stream()
+                .filter(summary -> summary.getName().endsWith(suffix))
+                .collect(Collectors.toMap(CategorySummaryDto::getId, Function.identity()));
+    }
+
+    private void saveProduct(String name, double price, int quantity, Category category) {
+        productRepository.save(Product.builder()
+                                       .name("stats-" + name + "-" + suffix)
+                                       .description("Product " + name)
+                                       .price(price)
+                                       .quantity(quantity)
+                                       .category(category)
+                                       .build());
+    }
+}
@@ -0,0 +1,233 @@
+package com.pt.productinventory.retry;
+
+import com.pt.productinventory.error.ErrorHandler;
+import com.pt.productinventory.model.Category;
+import com.pt.productinventory.model.Product;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.OptimisticLockException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.EnableAspectJAutoProxy;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.EnableTransactionManagement;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.interceptor.TransactionAspectSupport;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Objects;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringJUnitConfig
+@TestPropertySource(properties = {
+        "inventory.retry.max-attempts=3",
+        "inventory.retry.initial-backoff-ms=1",
+        "inventory.retry.max-backoff-ms=2"
+})
+public class OptimisticRetryAspectTest {
+
+    @Autowired
+    private ConflictingService conflictingService;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void initService() {
+        conflictingService.reset();
+    }
+
+    @Test
+    void should_RetryInNewTransactions_ConflictInCauseChain() {
+        double retriedBefore = conflicts("Category", "retried");
+        conflictingService.failWith(new IllegalStateException("flush failed", conflict(Category.class)));
+        conflictingService.failWith(new OptimisticLockException("stale category", null, Category.builder().build()));
+
+        assertEquals("updated", conflictingService.update());
+
+        assertEquals(List.of(true, true, true), conflictingService.newTransactions());
+        assertEquals(2.0, conflicts("Category", "retried") - retriedBefore);
+    }
+
+    @Test
+    void should_GiveUp_ConflictAfterMaxAttempts() {
+        double retriedBefore = conflicts("Product", "retried");
+        double exhaustedBefore = conflicts("Product", "exhausted");
+        ObjectOptimisticLockingFailureException last = conflict(Product.class);
+        conflictingService.failWith(conflict(Product.class));
+        conflictingService.failWith(conflict(Product.class));
+        conflictingService.failWith(last);
+
+        assertSame(last, assertThrows(ObjectOptimisticLockingFailureException.class, conflictingService::update));
+
+        assertEquals(List.of(true, true, true), conflictingService.newTransactions());
+        assertEquals(2.0, conflicts("Product", "retried") - retriedBefore);
+        assertEquals(1.0, conflicts("Product", "exhausted") - exhaustedBefore);
+    }
+
+    @Test
+    void should_ThrowConflict_InterruptedDuringBackoff() {
+        double interruptedBefore = conflicts("Product", "interrupted");
+        ObjectOptimisticLockingFailureException failure = conflict(Product.class);
+        conflictingService.failWith(failure);
+
+        Thread.currentThread().interrupt();
+        try {
+            assertSame(failure, assertThrows(ObjectOptimisticLockingFailureException.class, conflictingService::update));
+        } finally {
+            // clears the flag again, later tests run on the same thread
+            assertTrue(Thread.interrupted());
+        }
+
+        assertEquals(List.of(true), conflictingService.newTransactions());
+        assertEquals(1.0, conflicts("Product", "interrupted") - interruptedBefore);
+    }
+
+    @Test
+    void should_NotRetry_OtherException() {
+        conflictingService.failWith(new IllegalStateException("constraint violated"));
+
+        assertThrows(IllegalStateException.class, conflictingService::update);
+
+        assertEquals(1, conflictingService.newTransactions().size());
+    }
+
+    @Test
+    void should_NotRetry_InsideExistingTransaction() {
+        conflictingService.failWith(conflict(Product.class));
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+
+        assertThrows(ObjectOptimisticLockingFailureException.class,
+                     () -> transactionTemplate.execute(status -> conflictingService.update()));
+
+        // the joined transaction is retried around the outer call, if at all
+        assertEquals(List.of(false), conflictingService.newTransactions());
+    }
+
+    @Test
+    void should_ReturnConflict_ExhaustedConflicts() throws Exception {
+        MockMvc mockMvc = MockMvcBuilders.standaloneSetup(new ConflictingController(conflictingService))
+                .setControllerAdvice(new ErrorHandler())
+                .build();
+        for (int i = 0; i < 3; i++) {
+            conflictingService.failWith(conflict(Product.class));
+        }
+
+        mockMvc.perform(post("/conflicting"))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.message").value("Resource was changed by another request, please retry"));
+
+        assertEquals(3, conflictingService.newTransactions().size());
+    }
+
+    private static ObjectOptimisticLockingFailureException conflict(Class<?> entityClass) {
+        return new ObjectOptimisticLockingFailureException(entityClass, 1L);
+    }
+
+    private double conflicts(String entity, String outcome) {
+        Counter counter = meterRegistry.find("inventory.optimistic.conflicts")
+                .tag("entity", entity)
+                .tag("outcome", outcome)
+                .counter();
+
+        return Objects.isNull(counter) ? 0.0 : counter.count();
+    }
+
+    @Configuration
+    @EnableAspectJAutoProxy
+    @EnableTransactionManagement
+    @Import(OptimisticRetryAspect.class)
+    static class RetryConfig {
+
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+
+        @Bean
+        PlatformTransactionManager transactionManager() {
+            return new DataSourceTransactionManager(new EmbeddedDatabaseBuilder()
+                                                            .setType(EmbeddedDatabaseType.H2)
+                                                            .generateUniqueName(true)
+                                                            .build());
+        }
+
+        @Bean
+        ConflictingService conflictingService() {
+            return new ConflictingService();
+        }
+    }
+
+    /**
+     * Fails with the queued exceptions in turn, then succeeds, and records whether each attempt began a transaction.
+     */
+    static class ConflictingService {
+
+        private final Deque<RuntimeException> failures = new ArrayDeque<>();
+        private final List<Boolean> newTransactions = new ArrayList<>();
+
+        @RetryOnConflict
+        @Transactional
+        public String update() {
+            newTransactions.add(TransactionAspectSupport.currentTransactionStatus().isNewTransaction());
+            if (!failures.isEmpty()) {
+                throw failures.poll();
+            }
+
+            return "updated";
+        }
+
+        // public, the test only sees the proxy and package-private calls wouldn't reach the target's state
+        public void failWith(RuntimeException failure) {
+            failures.add(failure);
+        }
+
+        public List<Boolean> newTransactions() {
+            return List.copyOf(newTransactions);
+        }
+
+        public void reset() {
+            failures.clear();
+            newTransactions.clear();
+        }
+    }
+
+    @RestController
+    static class ConflictingController {
+
+        private final ConflictingService conflictingService;
+
+        ConflictingController(ConflictingService conflictingService) {
+            this.conflictingService = conflictingService;
+        }
+
+        @PostMapping("/conflicting")
+        public String update() {
+            return conflictingService.update();
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package com.pt.productinventory.search;
+
+import com.pt.productinventory.model.ProductName;
+import com.pt.productinventory.model.dto.ChangeEventDto;
+import com.pt.productinventory.model.dto.ChangeFeedDto;
+import com.pt.productinventory.model.enums.ChangeEntityType;
+import com.pt.productinventory.model.enums.ChangeOperation;
+import com.pt.productinventory.repository.ChangeEventRepository;
+import com.pt.productinventory.repository.ProductRepository;
+import com.pt.productinventory.service.ChangeEventService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ProductNameIndexTest {
+
+    private static final long CURSOR = 7L;
+
+    @Mock
+    private ProductRepository productRepository;
+    @Mock
+    private ChangeEventRepository changeEventRepository;
+    @Mock
+    private ChangeEventService changeEventService;
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    ProductNameIndex productNameIndex;
+
+    @BeforeEach
+    void initIndex() {
+        productNameIndex = new ProductNameIndex(productRepository, changeEventRepository, changeEventService, transactionTemplate, 2, 100);
+    }
+
+    @Test
+    void should_FindProductsContainingText_FindCandidates() {
+        rebuild(new ProductName(1L, "Green Apple"), new ProductName(2L, "Red Apple"), new ProductName(3L, "Pineapple"));
+
+        assertEquals(Optional.of(Set.of(1L, 2L)), productNameIndex.findCandidates("Apple"));
+        assertEquals(Optional.of(Set.of(3L)), productNameIndex.findCandidates("eapple"));
+        assertEquals(Optional.of(Set.of(1L)), productNameIndex.findCandidates("n App"));
+        assertEquals(Optional.of(Set.of()), productNameIndex.findCandidates("Banana"));
+    }
+
+    @Test
+    void should_VerifyCandidatesWithCase_CaseFoldedTrigrams() {
+        rebuild(new ProductName(1L, "Green Apple"));
+
+        // the trigrams fold case, the match doesn't, like the database like predicate
+        assertEquals(Optional.of(Set.of()), productNameIndex.findCandidates("apple"));
+        assertEquals(Optional.of(Set.of()), productNameIndex.findCandidates("GREEN"));
+        assertEquals(Optional.of(Set.of(1L)), productNameIndex.findCandidates("Green"));
+    }
+
+    @Test
+    void should_FollowRenameAndRemove() {
+        rebuild(new ProductName(1L, "Green Apple"), new ProductName(2L, "Red Apple"));
+
+        productNameIndex.index(1L, "Yellow Pear");
+        productNameIndex.remove(2L);
+
+        assertEquals(Optional.of(Set.of()), productNameIndex.findCandidates("Apple"));
+        assertEquals(Optional.of(Set.of(1L)), productNameIndex.findCandidates("Pear"));
+        assertEquals(Optional.of(Set.of()), productNameIndex.findCandidates("Red"));
+    }
+
+    @Test
+    void should_FallBackToDatabase_TooManyCandidates() {
+        rebuild(new ProductName(1L, "Green Apple"), new ProductName(2L, "Red Apple"), new ProductName(3L, "Pineapple"));
+
+        // three products contain "pple", more than the two candidates the index answers with
+        assertEquals(Optional.empty(), productNameIndex.findCandidates("pple"));
+        assertEquals(Optional.of(Set.of(1L, 2L)), productNameIndex.findCandidates("Apple"));
+    }
+
+    @Test
+    void should_FallBackToDatabase_IndexNotReadyOrTextTooShort() {
+        productNameIndex.index(1L, "Green Apple");
+
+        assertEquals(Optional.empty(), productNameIndex.findCandidates("Apple"));
+
+        rebuild();
+        assertEquals(Optional.empty(), productNameIndex.findCandidates("Ap"));
+        assertEquals(Optional.of(Set.of(1L)), productNameIndex.findCandidates("Apple"));
+    }
+
+    @Test
+    void should_ReadChangedNamesAgain_Refresh() {
+        rebuild(new ProductName(1L, "Green Apple"), new ProductName(2L, "Red Apple"));
+        stubTransactionResults();
+        when(changeEventService.poll(CURSOR, 100, 0L))
+                .thenReturn(changes(CURSOR, event(8L, 1L, ChangeOperation.UPDATED), event(9L, 2L, ChangeOperation.DELETED),
+                                    event(10L, 3L, ChangeOperation.CREATED)));
+        when(productRepository.findNamesByIdIn(argThat(ids -> Set.copyOf(ids).equals(Set.of(1L, 2L, 3L)))))
+                .thenReturn(List.of(new ProductName(1L, "Yellow Pear"), new ProductName(3L, "Red Pear")));
+
+        productNameIndex.refresh();
+
+        assertEquals(Optional.of(Set.of(1L, 3L)), productNameIndex.findCandidates("Pear"));
+        assertEquals(Optional.of(Set.of()), productNameIndex.findCandidates("Apple"));
+    }
+
+    @Test
+    void should_CorrectNameReadBeforeConcurrentRename_Refresh() {
+        // the startup stream read the old name after the rename had already been applied from its commit
+        productNameIndex.index(1L, "Yellow Pear");
+        rebuild(new ProductName(1L, "Green Apple"));
+        assertEquals(Optional.of(Set.of(1L)), productNameIndex.findCandidates("Apple"));
+        stubTransactionResults();
+        when(changeEventService.poll(CURSOR, 100, 0L)).thenReturn(changes(CURSOR, event(8L, 1L, ChangeOperation.UPDATED)));
+        when(productRepository.findNamesByIdIn(List.of(1L))).thenReturn(List.of(new ProductName(1L, "Yellow Pear")));
+        when(changeEventService.poll(8L, 100, 0L)).thenReturn(changes(8L));
+
+        productNameIndex.refresh();
+        productNameIndex.refresh();
+
+        assertEquals(Optional.of(Set.of()), productNameIndex.findCandidates("Apple"));
+        assertEquals(Optional.of(Set.of(1L)), productNameIndex.findCandidates("Pear"));
+        verify(productRepository, times(1)).findNamesByIdIn(any());
+    }
+
+    private void rebuild(ProductName... productNames) {
+        doAnswer(invocation -> {
+            invocation.<Consumer<TransactionStatus>>getArgument(0).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+        when(changeEventRepository.findLastPosition()).thenReturn(CURSOR);
+        when(productRepository.streamNames()).thenReturn(Stream.of(productNames));
+
+        productNameIndex.rebuild();
+    }
+
+    private void stubTransactionResults() {
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+    }
+
+    private static CompletableFuture<ChangeFeedDto> changes(long since, ChangeEventDto... events) {
+        return CompletableFuture.completedFuture(ChangeFeedDto.builder()
+                                                         .events(List.of(events))
+                                                         .nextCursor(events.length == 0 ? since : events[events.length - 1].getPosition())
+                                                         .build());
+    }
+
+    private static ChangeEventDto event(long position, long productId, ChangeOperation operation) {
+        return new ChangeEventDto(position, ChangeEntityType.PRODUCT, productId, operation, Instant.now());
+    }
+}
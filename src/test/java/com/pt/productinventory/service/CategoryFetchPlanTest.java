@@ -0,0 +1,101 @@
+package com.pt.productinventory.service;
+
+import com.pt.productinventory.metrics.StatementCounter;
+import com.pt.productinventory.model.Category;
+import com.pt.productinventory.model.Product;
+import com.pt.productinventory.model.dto.CategoryResponseDto;
+import com.pt.productinventory.repository.CategoryRepository;
+import com.pt.productinventory.repository.ProductRepository;
+import org.hibernate.Hibernate;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+public class CategoryFetchPlanTest {
+
+    @Autowired
+    private CategoryService categoryService;
+    @Autowired
+    private ProductService productService;
+    @Autowired
+    private CategoryRepository categoryRepository;
+    @Autowired
+    private ProductRepository productRepository;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    List<Category> categories;
+    Product product;
+
+    @BeforeEach
+    void initData() {
+        String suffix = UUID.randomUUID().toString();
+        categories = transactionTemplate.execute(status -> IntStream.range(0, 3)
+                .mapToObj(index -> {
+                    Category category = categoryRepository.save(Category.builder()
+                                                                        .name("fetch-plan-" + index + "-" + suffix)
+                                                                        .build());
+                    IntStream.range(0, 2).forEach(productIndex -> productRepository.save(Product.builder()
+                            .name("fetch-plan-product-" + productIndex + "-" + suffix)
+                            .description("Product of " + category.getName())
+                            .price(10.0 + productIndex)
+                            .quantity(5)
+                            .category(category)
+                            .build()));
+                    return category;
+                })
+                .toList());
+        product = transactionTemplate.execute(status -> productRepository.save(Product.builder()
+                .name("fetch-plan-uncategorized-" + suffix)
+                .description("Product without category")
+                .price(1.0)
+                .quantity(1)
+                .build()));
+    }
+
+    @Test
+    void should_IssueOneStatement_FindAllCategoriesWithoutProducts() {
+        StatementCounter.start();
+        List<CategoryResponseDto> categoryResponseDtos = categoryService.findAll(false);
+        int statements = StatementCounter.stop();
+
+        assertEquals(1, statements);
+        assertTrue(categoryResponseDtos.size() >= categories.size());
+        assertTrue(categoryResponseDtos.stream().allMatch(category -> category.getBaseProductDtoList() == null));
+    }
+
+    @Test
+    void should_BatchFetchProducts_FindAllCategoriesWithProducts() {
+        long categoryCount = categoryRepository.count();
+
+        StatementCounter.start();
+        List<CategoryResponseDto> categoryResponseDtos = categoryService.findAll(true);
+        int statements = StatementCounter.stop();
+
+        // one statement for the categories and one per batch of 50 product collections
+        assertEquals(1 + Math.ceilDiv(categoryCount, 50), statements);
+        assertEquals(categoryCount, categoryResponseDtos.size());
+    }
+
+    @Test
+    void should_NotLoadCategoryProducts_AddCategoryToProduct() {
+        Long categoryId = categories.get(0).getId();
+
+        boolean productsLoaded = Boolean.TRUE.equals(transactionTemplate.execute(status -> {
+            productService.addCategoryToProduct(categoryId, product.getId());
+            return Hibernate.isInitialized(categoryService.findById(categoryId).getProducts());
+        }));
+
+        assertFalse(productsLoaded);
+        assertEquals(categoryId, productRepository.findWithCategoryByIdIn(List.of(product.getId())).get(0).getCategory().getId());
+    }
+}
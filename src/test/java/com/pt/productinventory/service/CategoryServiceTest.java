@@ -0,0 +1,124 @@
+package com.pt.productinventory.service;
+
+import com.pt.productinventory.cache.CacheNames;
+import com.pt.productinventory.cache.VersionedCache;
+import com.pt.productinventory.mapper.CategoryMapper;
+import com.pt.productinventory.mapper.WindowMapper;
+import com.pt.productinventory.model.Category;
+import com.pt.productinventory.model.Product;
+import com.pt.productinventory.model.ProductVersion;
+import com.pt.productinventory.model.dto.CategoryResponseDto;
+import com.pt.productinventory.model.dto.CategoryUpdateDto;
+import com.pt.productinventory.model.enums.ChangeEntityType;
+import com.pt.productinventory.model.enums.ChangeOperation;
+import com.pt.productinventory.repository.CategoryRepository;
+import com.pt.productinventory.repository.ProductRepository;
+import com.pt.productinventory.service.impl.CategoryServiceImpl;
+import com.pt.productinventory.validator.SortFieldRegistry;
+import com.pt.productinventory.validator.ValidatorService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class CategoryServiceTest {
+
+    @Mock
+    private CategoryRepository categoryRepository;
+    @Mock
+    private ProductRepository productRepository;
+    @Mock
+    private CategoryMapper categoryMapper;
+    @Mock
+    private WindowMapper windowMapper;
+    @Mock
+    private ValidatorService validatorService;
+    @Mock
+    private SortFieldRegistry sortFieldRegistry;
+    @Mock
+    private VersionedCache versionedCache;
+    @Mock
+    private ChangeEventService changeEventService;
+    @InjectMocks
+    private CategoryServiceImpl categoryService;
+
+    Category fruit;
+
+    @BeforeEach
+    void initData() {
+        fruit = Category.builder()
+                .id(0L)
+                .name("fruit")
+                .build();
+    }
+
+    @Test
+    void should_EvictAllCategoryProducts_RenameCategory() {
+        when(categoryRepository.findById(0L)).thenReturn(Optional.of(fruit));
+        when(productRepository.findVersionsByCategoryId(0L))
+                .thenReturn(List.of(new ProductVersion(1L, 3L), new ProductVersion(2L, 5L)));
+        when(categoryRepository.save(fruit)).thenReturn(fruit);
+        when(categoryMapper.toCategoryResponseDto(fruit)).thenReturn(new CategoryResponseDto("fresh fruit"));
+
+        CategoryResponseDto result = categoryService.update(0L, CategoryUpdateDto.builder().name("fresh fruit").build());
+
+        assertEquals("fresh fruit", result.getName());
+        verify(versionedCache).evict(eq(CacheNames.PRODUCTS), eq(1L), any(), any());
+        verify(versionedCache).evict(eq(CacheNames.PRODUCTS), eq(2L), any(), any());
+        verify(versionedCache).evict(eq(CacheNames.CATEGORIES_BY_NAME), eq("fruit"), any());
+        verify(versionedCache).evict(eq(CacheNames.CATEGORIES_BY_NAME), eq("fresh fruit"), any());
+        verify(changeEventService).record(ChangeEntityType.CATEGORY, 0L, ChangeOperation.UPDATED);
+    }
+
+    @Test
+    void should_KeepProductEntries_UpdateCategoryWithSameName() {
+        when(categoryRepository.findById(0L)).thenReturn(Optional.of(fruit));
+        when(categoryRepository.save(fruit)).thenReturn(fruit);
+        when(categoryMapper.toCategoryResponseDto(fruit)).thenReturn(new CategoryResponseDto("fruit"));
+
+        categoryService.update(0L, CategoryUpdateDto.builder().name("fruit").build());
+
+        verify(productRepository, never()).findVersionsByCategoryId(any());
+        verify(versionedCache, never()).evict(eq(CacheNames.PRODUCTS), any(), any(), any());
+    }
+
+    @Test
+    void should_ChangeETag_ProductsWithSameIdAndVersionSums() {
+        when(categoryRepository.findVersionById(0L)).thenReturn(Optional.of(1L));
+        when(productRepository.findVersionsByCategoryId(0L))
+                .thenReturn(List.of(new ProductVersion(1L, 2L), new ProductVersion(4L, 3L)))
+                .thenReturn(List.of(new ProductVersion(2L, 3L), new ProductVersion(3L, 2L)));
+
+        // both product sets have two products, an id sum of 5 and a version sum of 5
+        assertNotEquals(categoryService.findETag(0L), categoryService.findETag(0L));
+    }
+
+    @Test
+    void should_MatchFindETag_FindByIdWithETag() {
+        ReflectionTestUtils.setField(fruit, "version", 1L);
+        fruit.setProducts(List.of(product(4L, 3L), product(1L, 2L)));
+        when(categoryRepository.findWithProductsById(0L)).thenReturn(Optional.of(fruit));
+        when(categoryMapper.toCategoryResponseDto(fruit)).thenReturn(new CategoryResponseDto("fruit"));
+        when(categoryRepository.findVersionById(0L)).thenReturn(Optional.of(1L));
+        when(productRepository.findVersionsByCategoryId(0L))
+                .thenReturn(List.of(new ProductVersion(1L, 2L), new ProductVersion(4L, 3L)));
+
+        assertEquals(categoryService.findETag(0L), categoryService.findByIdWithETag(0L).eTag());
+    }
+
+    private static Product product(Long id, Long version) {
+        Product product = Product.builder().id(id).name("product " + id).build();
+        ReflectionTestUtils.setField(product, "version", version);
+        return product;
+    }
+}
@@ -0,0 +1,114 @@
+package com.pt.productinventory.service;
+
+import com.pt.productinventory.model.dto.ChangeEventDto;
+import com.pt.productinventory.model.dto.ChangeFeedDto;
+import com.pt.productinventory.model.enums.ChangeEntityType;
+import com.pt.productinventory.model.enums.ChangeOperation;
+import com.pt.productinventory.repository.ChangeEventRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+public class ChangeFeedOrderTest {
+
+    @Autowired
+    private ChangeEventService changeEventService;
+    @Autowired
+    private ChangeEventRepository changeEventRepository;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    TransactionTemplate transactionTemplate;
+    TransactionTemplate requiresNewTemplate;
+    long firstEntityId, secondEntityId;
+
+    @BeforeEach
+    void initData() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        requiresNewTemplate = new TransactionTemplate(transactionManager);
+        requiresNewTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        // entity ids no product has, the feed doesn't look them up
+        firstEntityId = ThreadLocalRandom.current().nextLong(1_000_000_000L, Long.MAX_VALUE / 2);
+        secondEntityId = firstEntityId + 1;
+    }
+
+    @Test
+    void should_OrderEventsByCommit_TransactionRecordingFirstCommitsLast() {
+        long since = transactionTemplate.execute(status -> changeEventRepository.findLastPosition());
+
+        ChangeFeedDto beforeFirstCommit = transactionTemplate.execute(status -> {
+            changeEventService.record(ChangeEntityType.PRODUCT, firstEntityId, ChangeOperation.UPDATED);
+            requiresNewTemplate.executeWithoutResult(inner ->
+                    changeEventService.record(ChangeEntityType.PRODUCT, secondEntityId, ChangeOperation.UPDATED));
+            requiresNewTemplate.executeWithoutResult(inner -> changeEventService.relay());
+
+            return requiresNewTemplate.execute(inner -> changeEventService.poll(since, 1000, 0L).join());
+        });
+        changeEventService.relay();
+        ChangeFeedDto afterFirstCommit = changeEventService.poll(beforeFirstCommit.getNextCursor(), 1000, 0L).join();
+
+        assertEquals(List.of(secondEntityId), entityIds(beforeFirstCommit));
+        assertEquals(List.of(firstEntityId), entityIds(afterFirstCommit));
+        assertTrue(afterFirstCommit.getNextCursor() > beforeFirstCommit.getNextCursor());
+    }
+
+    @Test
+    void should_ServeEventsOnlyOnceRelayed_CommittedTransaction() {
+        // the scheduled relay may number them any time after the commit, this test runs it right away
+        long since = transactionTemplate.execute(status -> changeEventRepository.findLastPosition());
+        transactionTemplate.executeWithoutResult(status ->
+                changeEventService.record(ChangeEntityType.PRODUCT, firstEntityId, ChangeOperation.CREATED));
+
+        changeEventService.relay();
+        ChangeFeedDto changeFeed = changeEventService.poll(since, 1000, 0L).join();
+
+        assertEquals(List.of(firstEntityId), entityIds(changeFeed));
+        assertTrue(changeFeed.getEvents().stream().allMatch(event -> event.getPosition() > since));
+    }
+
+    @Test
+    void should_WakeUpWaitingPoll_Relay() {
+        long since = transactionTemplate.execute(status -> changeEventRepository.findLastPosition());
+        CompletableFuture<ChangeFeedDto> waitingPoll = changeEventService.poll(since, 1000, 10_000L);
+
+        transactionTemplate.executeWithoutResult(status ->
+                changeEventService.record(ChangeEntityType.PRODUCT, firstEntityId, ChangeOperation.UPDATED));
+        changeEventService.relay();
+
+        assertFalse(waitingPoll.join().getEvents().isEmpty());
+    }
+
+    @Test
+    void should_NotRecordEvents_RolledBackTransaction() {
+        long since = transactionTemplate.execute(status -> changeEventRepository.findLastPosition());
+
+        transactionTemplate.executeWithoutResult(status -> {
+            changeEventService.record(ChangeEntityType.PRODUCT, firstEntityId, ChangeOperation.DELETED);
+            status.setRollbackOnly();
+        });
+        transactionTemplate.executeWithoutResult(status ->
+                changeEventService.record(ChangeEntityType.PRODUCT, secondEntityId, ChangeOperation.DELETED));
+        changeEventService.relay();
+        ChangeFeedDto changeFeed = changeEventService.poll(since, 1000, 0L).join();
+
+        assertEquals(List.of(secondEntityId), entityIds(changeFeed));
+    }
+
+    private List<Long> entityIds(ChangeFeedDto changeFeed) {
+        return changeFeed.getEvents().stream()
+                .map(ChangeEventDto::getEntityId)
+                .filter(entityId -> entityId == firstEntityId || entityId == secondEntityId)
+                .toList();
+    }
+}
@@ -0,0 +1,158 @@
+package com.pt.productinventory.service;
+
+import com.pt.productinventory.error.exceptions.IllegalParameterException;
+import com.pt.productinventory.model.Category;
+import com.pt.productinventory.model.Product;
+import com.pt.productinventory.model.ProductVersion;
+import com.pt.productinventory.model.dto.BatchResponseDto;
+import com.pt.productinventory.model.dto.BulkUpdateResponseDto;
+import com.pt.productinventory.model.dto.ProductResponseDto;
+import com.pt.productinventory.repository.CategoryRepository;
+import com.pt.productinventory.repository.ProductRepository;
+import com.pt.productinventory.search.ProductNameIndex;
+import com.pt.productinventory.util.IdBatches;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+public class ProductBulkServiceIntegrationTest {
+
+    // two full chunks and one single row chunk
+    private static final int PRODUCT_COUNT = 1001;
+
+    @Autowired
+    private ProductBulkService productBulkService;
+    @Autowired
+    private ProductService productService;
+    @Autowired
+    private CategoryRepository categoryRepository;
+    @Autowired
+    private ProductRepository productRepository;
+    @Autowired
+    private ProductNameIndex productNameIndex;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    String suffix;
+    Category fruit, groceries;
+    List<Product> products;
+    List<Long> productIds;
+
+    @BeforeEach
+    void initData() {
+        suffix = UUID.randomUUID().toString();
+        fruit = saveCategory("bulk-fruit-" + suffix);
+        groceries = saveCategory("bulk-groceries-" + suffix);
+        products = transactionTemplate.execute(status -> productRepository.saveAll(IntStream.range(0, PRODUCT_COUNT)
+                .mapToObj(index -> Product.builder()
+                        .name("bulk-product-" + index + "-" + suffix)
+                        .description("Bulk product " + index)
+                        .price(10.0)
+                        .quantity(5)
+                        .category(fruit)
+                        .build())
+                .toList()));
+        productIds = products.stream().map(Product::getId).toList();
+    }
+
+    @Test
+    void should_RepriceInChunks_RepriceCategory() {
+        Long productId = productIds.getLast();
+        assertEquals(10.0, productService.findByIdWithETag(productId).body().getPrice());
+
+        BulkUpdateResponseDto bulkUpdateResponseDto = productBulkService.repriceCategory(fruit.getId(), 10.0);
+
+        assertEquals(PRODUCT_COUNT, bulkUpdateResponseDto.getAffected());
+        assertEquals(3, bulkUpdateResponseDto.getChunks());
+        assertVersionsBumped();
+        assertTrue(productRepository.findWithCategoryByIdIn(productIds.subList(0, 10)).stream()
+                           .allMatch(product -> product.getPrice() == 11.0));
+        assertEquals(11.0, productService.findByIdWithETag(productId).body().getPrice());
+    }
+
+    @Test
+    void should_AssignInChunks_AssignCategory() {
+        Long productId = productIds.getFirst();
+        assertEquals(fruit.getName(), productService.findByIdWithETag(productId).body().getCategory());
+
+        BulkUpdateResponseDto bulkUpdateResponseDto = productBulkService.assignCategory(groceries.getId(), productIds);
+
+        assertEquals(PRODUCT_COUNT, bulkUpdateResponseDto.getAffected());
+        assertEquals(3, bulkUpdateResponseDto.getChunks());
+        assertVersionsBumped();
+        assertEquals(PRODUCT_COUNT, productRepository.findVersionsByCategoryId(groceries.getId()).size());
+        assertTrue(productRepository.findVersionsByCategoryId(fruit.getId()).isEmpty());
+        assertEquals(groceries.getName(), productService.findByIdWithETag(productId).body().getCategory());
+    }
+
+    @Test
+    void should_DeleteInChunks_DeleteByFilter() {
+        Long productId = productIds.getFirst();
+        productService.findByIdWithETag(productId);
+        String productName = products.getFirst().getName();
+        assertEquals(Optional.of(Set.of(productId)), productNameIndex.findCandidates(productName));
+
+        BulkUpdateResponseDto bulkUpdateResponseDto = productBulkService.deleteByFilter(suffix, null, null);
+
+        assertEquals(PRODUCT_COUNT, bulkUpdateResponseDto.getAffected());
+        assertEquals(3, bulkUpdateResponseDto.getChunks());
+        assertTrue(findVersions().isEmpty());
+        assertEquals(Optional.of(Set.of()), productNameIndex.findCandidates(productName));
+        assertEquals(Optional.of(Set.of()), productNameIndex.findCandidates(suffix));
+        BatchResponseDto<ProductResponseDto> batchResponseDto = productService.findAllByIds(List.of(productId));
+        assertTrue(batchResponseDto.getContent().isEmpty());
+        assertEquals(List.of(productId), batchResponseDto.getMissingIds());
+    }
+
+    @Test
+    void should_DeleteProductsMissingFromNameIndex_DeleteByFilter() {
+        // another instance's index, or this one lagging behind a commit, doesn't know the product
+        productNameIndex.remove(productIds.getFirst());
+
+        BulkUpdateResponseDto bulkUpdateResponseDto = productBulkService.deleteByFilter(suffix, null, null);
+
+        assertEquals(PRODUCT_COUNT, bulkUpdateResponseDto.getAffected());
+        assertTrue(findVersions().isEmpty());
+    }
+
+    @Test
+    void should_ThrowIllegalParameter_NonFinitePercentage() {
+        assertThrows(IllegalParameterException.class, () -> productBulkService.repriceCategory(fruit.getId(), Double.NaN));
+        assertThrows(IllegalParameterException.class,
+                     () -> productBulkService.repriceCategory(fruit.getId(), Double.POSITIVE_INFINITY));
+        assertEquals(PRODUCT_COUNT, findVersions().size());
+        assertTrue(productRepository.findWithCategoryByIdIn(productIds.subList(0, 10)).stream()
+                           .allMatch(product -> product.getPrice() == 10.0));
+    }
+
+    private void assertVersionsBumped() {
+        Map<Long, Long> versions = findVersions().stream()
+                .collect(Collectors.toMap(ProductVersion::id, ProductVersion::version));
+
+        assertEquals(PRODUCT_COUNT, versions.size());
+        products.forEach(product -> assertEquals(product.getVersion() + 1, versions.get(product.getId())));
+    }
+
+    private List<ProductVersion> findVersions() {
+        return IdBatches.findInChunks(productIds, productRepository::findVersionsByIdIn);
+    }
+
+    private Category saveCategory(String name) {
+        return transactionTemplate.execute(status -> categoryRepository.save(Category.builder()
+                                                                                    .name(name)
+                                                                                    .build()));
+    }
+}
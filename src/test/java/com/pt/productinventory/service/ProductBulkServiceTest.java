@@ -0,0 +1,148 @@
+package com.pt.productinventory.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pt.productinventory.cache.VersionedCache;
+import com.pt.productinventory.model.Product;
+import com.pt.productinventory.model.dto.BulkResponseDto;
+import com.pt.productinventory.model.dto.BulkRowErrorDto;
+import com.pt.productinventory.model.enums.BulkFormat;
+import com.pt.productinventory.repository.ProductRepository;
+import com.pt.productinventory.search.ProductNameIndex;
+import com.pt.productinventory.service.impl.ProductBulkServiceImpl;
+import com.pt.productinventory.validator.ValidatorService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ProductBulkServiceTest {
+
+    @Mock
+    private ValidatorService validatorService;
+    @Mock
+    private EntityManager entityManager;
+    @Mock
+    private TransactionTemplate transactionTemplate;
+    @Mock
+    private ProductRepository productRepository;
+    @Mock
+    private CategoryService categoryService;
+    @Mock
+    private VersionedCache versionedCache;
+    @Mock
+    private ProductNameIndex productNameIndex;
+    @Mock
+    private ChangeEventService changeEventService;
+
+    private ProductBulkServiceImpl productBulkService;
+
+    @BeforeEach
+    void initService() {
+        productBulkService = new ProductBulkServiceImpl(new ObjectMapper(),
+                                                        validatorService,
+                                                        entityManager,
+                                                        transactionTemplate,
+                                                        productRepository,
+                                                        categoryService,
+                                                        versionedCache,
+                                                        productNameIndex,
+                                                        changeEventService);
+        doAnswer(invocation -> {
+            invocation.<Consumer<TransactionStatus>>getArgument(0).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+    }
+
+    @Test
+    void should_SkipUnmappableJsonRow_SaveAll() {
+        String json = """
+                [{"name": "Apple", "description": "Fresh apple", "price": 1.5, "quantity": 3},
+                 {"name": "Pear", "description": "Fresh pear", "price": "abc", "quantity": 3},
+                 {"name": "Plum", "description": "Fresh plum", "price": 2.0, "quantity": 4}]
+                """;
+
+        BulkResponseDto bulkResponseDto = productBulkService.saveAll(toInputStream(json), BulkFormat.JSON);
+
+        assertEquals(3L, bulkResponseDto.getReceived());
+        assertEquals(2L, bulkResponseDto.getInserted());
+        assertEquals(1, bulkResponseDto.getFailures().size());
+        assertEquals(2L, bulkResponseDto.getFailures().get(0).getRowNumber());
+        verify(entityManager, times(2)).persist(any(Product.class));
+    }
+
+    @Test
+    void should_SkipUnmappableCsvRow_SaveAll() {
+        String csv = """
+                name,description,price,quantity
+                Apple,Fresh apple,1.5,3
+                Pear,Fresh pear,abc,3
+                Plum,Fresh plum,2.0,4
+                """;
+
+        BulkResponseDto bulkResponseDto = productBulkService.saveAll(toInputStream(csv), BulkFormat.CSV);
+
+        assertEquals(3L, bulkResponseDto.getReceived());
+        assertEquals(2L, bulkResponseDto.getInserted());
+        assertEquals(1, bulkResponseDto.getFailures().size());
+        assertEquals(2L, bulkResponseDto.getFailures().get(0).getRowNumber());
+    }
+
+    @Test
+    void should_StopAtMalformedInput_SaveAll() {
+        String json = """
+                [{"name": "Apple", "description": "Fresh apple", "price": 1.5, "quantity": 3},
+                 {"name": "Pear", "description": "Fresh pear", "price":
+                """;
+
+        BulkResponseDto bulkResponseDto = productBulkService.saveAll(toInputStream(json), BulkFormat.JSON);
+
+        assertEquals(1L, bulkResponseDto.getReceived());
+        assertEquals(1L, bulkResponseDto.getInserted());
+        assertEquals(1, bulkResponseDto.getFailures().size());
+        assertEquals(2L, bulkResponseDto.getFailures().get(0).getRowNumber());
+        verify(entityManager, times(1)).persist(any(Product.class));
+    }
+
+    @Test
+    void should_ReportOnlyFailingRow_SaveAll() {
+        doAnswer(invocation -> {
+            if ("Broken".equals(invocation.<Product>getArgument(0).getName())) {
+                throw new PersistenceException("value too long for column name");
+            }
+            return null;
+        }).when(entityManager).persist(any(Product.class));
+        String csv = """
+                name,description,price,quantity
+                Apple,Fresh apple,1.5,3
+                Broken,Fresh pear,2.5,3
+                Plum,Fresh plum,2.0,4
+                Cherry,Fresh cherry,4.0,10
+                """;
+
+        BulkResponseDto bulkResponseDto = productBulkService.saveAll(toInputStream(csv), BulkFormat.CSV);
+
+        assertEquals(4L, bulkResponseDto.getReceived());
+        assertEquals(3L, bulkResponseDto.getInserted());
+        assertEquals(1, bulkResponseDto.getFailures().size());
+        BulkRowErrorDto failure = bulkResponseDto.getFailures().get(0);
+        assertEquals(2L, failure.getRowNumber());
+        assertEquals("Row could not be saved", failure.getMessage());
+    }
+
+    private static ByteArrayInputStream toInputStream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
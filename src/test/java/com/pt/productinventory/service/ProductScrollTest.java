@@ -0,0 +1,108 @@
+package com.pt.productinventory.service;
+
+import com.pt.productinventory.error.exceptions.IllegalParameterException;
+import com.pt.productinventory.model.Product;
+import com.pt.productinventory.model.dto.ProductResponseDto;
+import com.pt.productinventory.model.dto.WindowResponseDto;
+import com.pt.productinventory.model.enums.SortDirection;
+import com.pt.productinventory.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+public class ProductScrollTest {
+
+    @Autowired
+    private ProductService productService;
+    @Autowired
+    private ProductRepository productRepository;
+
+    String suffix;
+    List<Product> products;
+
+    @BeforeEach
+    void initData() {
+        suffix = UUID.randomUUID().toString();
+        products = new ArrayList<>();
+        // duplicate prices, so windows have to break ties on the id
+        for (double price : new double[]{3.0, 1.0, 2.0, 2.0, 5.0, 2.0}) {
+            products.add(productRepository.save(Product.builder()
+                                                        .name("scroll-" + products.size() + "-" + suffix)
+                                                        .description("Scrolled product")
+                                                        .price(price)
+                                                        .quantity(1)
+                                                        .build()));
+        }
+    }
+
+    @Test
+    void should_VisitEveryProductOnce_ScrollByPriceAscending() {
+        List<String> expected = products.stream()
+                .sorted(Comparator.comparing(Product::getPrice).thenComparing(Product::getId))
+                .map(Product::getName)
+                .toList();
+
+        assertEquals(expected, scrollAll("price", SortDirection.ASC));
+    }
+
+    @Test
+    void should_VisitEveryProductOnce_ScrollByPriceDescending() {
+        List<String> expected = products.stream()
+                .sorted(Comparator.comparing(Product::getPrice).thenComparing(Product::getId).reversed())
+                .map(Product::getName)
+                .toList();
+
+        assertEquals(expected, scrollAll("price", SortDirection.DESC));
+    }
+
+    @Test
+    void should_RejectToken_OtherSort() {
+        String continuationToken = scroll("price", SortDirection.ASC, null).getContinuationToken();
+        assertNotNull(continuationToken);
+
+        assertThrows(IllegalParameterException.class, () -> scroll("name", SortDirection.ASC, continuationToken));
+        assertThrows(IllegalParameterException.class, () -> scroll("price", SortDirection.DESC, continuationToken));
+    }
+
+    @Test
+    void should_RejectToken_KeysOfOtherFields() {
+        String continuationToken = Base64.getUrlEncoder().withoutPadding().encodeToString(
+                "{\"sort\":\"price:ASC,id:ASC\",\"keys\":{\"category\":{\"id\":1},\"id\":1}}".getBytes(StandardCharsets.UTF_8));
+
+        assertThrows(IllegalParameterException.class, () -> scroll("price", SortDirection.ASC, continuationToken));
+        assertThrows(IllegalParameterException.class, () -> scroll("price", SortDirection.ASC, "not-a-token"));
+    }
+
+    @Test
+    void should_RejectNullableAssociation_ScrollByCategory() {
+        assertThrows(IllegalParameterException.class, () -> scroll("category", SortDirection.ASC, null));
+    }
+
+    private List<String> scrollAll(String sortBy, SortDirection sortDirection) {
+        List<String> names = new ArrayList<>();
+        String continuationToken = null;
+        do {
+            WindowResponseDto<ProductResponseDto> window = scroll(sortBy, sortDirection, continuationToken);
+            window.getContent().forEach(product -> names.add(product.getName()));
+            continuationToken = window.getContinuationToken();
+        } while (Objects.nonNull(continuationToken));
+
+        return names;
+    }
+
+    private WindowResponseDto<ProductResponseDto> scroll(String sortBy, SortDirection sortDirection, String continuationToken) {
+        return productService.findAllScrollable(2, sortBy, sortDirection, suffix, null, null, continuationToken, false);
+    }
+}
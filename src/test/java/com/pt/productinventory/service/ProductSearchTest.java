@@ -0,0 +1,141 @@
+package com.pt.productinventory.service;
+
+import com.pt.productinventory.error.exceptions.IllegalParameterException;
+import com.pt.productinventory.metrics.StatementCounter;
+import com.pt.productinventory.model.Category;
+import com.pt.productinventory.model.Product;
+import com.pt.productinventory.model.ProductFilter;
+import com.pt.productinventory.model.dto.CategoryFacetDto;
+import com.pt.productinventory.model.dto.PriceBucketDto;
+import com.pt.productinventory.model.dto.ProductSearchResponseDto;
+import com.pt.productinventory.model.enums.SortDirection;
+import com.pt.productinventory.repository.CategoryRepository;
+import com.pt.productinventory.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "inventory.search.max-price-buckets=4")
+public class ProductSearchTest {
+
+    @Autowired
+    private ProductService productService;
+    @Autowired
+    private CategoryRepository categoryRepository;
+    @Autowired
+    private ProductRepository productRepository;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    String suffix;
+    Category fruit, hardware;
+
+    @BeforeEach
+    void initData() {
+        suffix = UUID.randomUUID().toString();
+        transactionTemplate.executeWithoutResult(status -> {
+            fruit = categoryRepository.save(Category.builder().name("search-fruit-" + suffix).build());
+            hardware = categoryRepository.save(Category.builder().name("search-hardware-" + suffix).build());
+            saveProduct("apple", 5.0, fruit);
+            saveProduct("pear", 12.0, fruit);
+            saveProduct("plum", 15.0, fruit);
+            saveProduct("headphones", 25.0, hardware);
+            saveProduct("gift card", 5.0, null);
+        });
+    }
+
+    @Test
+    void should_CountCategoriesWithoutCategoryFilter_Search() {
+        StatementCounter.start();
+        ProductSearchResponseDto result = search(List.of(fruit.getId()), 0, 10.0);
+        int statements = StatementCounter.stop();
+
+        // grouped category and price bucket queries and one page query
+        assertEquals(3, statements);
+        assertEquals(List.of(fruit.getId(), hardware.getId()),
+                     result.getCategories().stream().map(CategoryFacetDto::getId).toList());
+        assertEquals(List.of(3L, 1L),
+                     result.getCategories().stream().map(CategoryFacetDto::getProductCount).toList());
+    }
+
+    @Test
+    void should_RestrictTotalAndHistogramToSelectedCategories_Search() {
+        ProductSearchResponseDto result = search(List.of(fruit.getId()), 0, 10.0);
+
+        assertEquals(3L, result.getTotalElements());
+        assertEquals(3, result.getContent().size());
+        List<PriceBucketDto> priceHistogram = result.getPriceHistogram();
+        assertEquals(2, priceHistogram.size());
+        assertEquals(0.0, priceHistogram.get(0).getFromPrice());
+        assertEquals(10.0, priceHistogram.get(0).getToPrice());
+        assertEquals(1L, priceHistogram.get(0).getProductCount());
+        assertEquals(10.0, priceHistogram.get(1).getFromPrice());
+        assertEquals(20.0, priceHistogram.get(1).getToPrice());
+        assertEquals(2L, priceHistogram.get(1).getProductCount());
+    }
+
+    @Test
+    void should_CountAllProducts_SearchWithoutCategoryFilter() {
+        ProductSearchResponseDto result = search(null, 0, 10.0);
+
+        assertEquals(5L, result.getTotalElements());
+        assertEquals(List.of(2L, 2L, 1L),
+                     result.getPriceHistogram().stream().map(PriceBucketDto::getProductCount).toList());
+    }
+
+    @Test
+    void should_SkipPageQuery_OffsetPastTotal() {
+        StatementCounter.start();
+        ProductSearchResponseDto result = search(List.of(fruit.getId()), 1, 10.0);
+        int statements = StatementCounter.stop();
+
+        assertEquals(2, statements);
+        assertEquals(3L, result.getTotalElements());
+        assertTrue(result.getContent().isEmpty());
+    }
+
+    @Test
+    void should_WidenPriceBuckets_NarrowBucketWidth() {
+        // prices of the search run from 5 to 25, four buckets over that range are at least 5 wide
+        ProductSearchResponseDto result = search(null, 0, 0.001);
+
+        assertEquals(5L, result.getTotalElements());
+        assertEquals(List.of(5.0, 10.0, 15.0, 25.0),
+                     result.getPriceHistogram().stream().map(PriceBucketDto::getFromPrice).toList());
+        assertEquals(List.of(2L, 1L, 1L, 1L),
+                     result.getPriceHistogram().stream().map(PriceBucketDto::getProductCount).toList());
+    }
+
+    @Test
+    void should_ThrowIllegalParameter_InvalidPriceBucketWidth() {
+        assertThrows(IllegalParameterException.class, () -> search(null, 0, 0.0));
+        assertThrows(IllegalParameterException.class, () -> search(null, 0, Double.NaN));
+        assertThrows(IllegalParameterException.class, () -> search(null, 0, Double.POSITIVE_INFINITY));
+    }
+
+    private ProductSearchResponseDto search(List<Long> categoryIds, int pageNum, double priceBucketWidth) {
+        ProductFilter productFilter = ProductFilter.builder()
+                .name(suffix)
+                .categoryIds(categoryIds)
+                .build();
+
+        return productService.search(productFilter, pageNum, 10, List.of("name"), List.of(SortDirection.ASC), priceBucketWidth);
+    }
+
+    private void saveProduct(String name, double price, Category category) {
+        productRepository.save(Product.builder()
+                                       .name("search-" + name + "-" + suffix)
+                                       .description("Product " + name)
+                                       .price(price)
+                                       .quantity(1)
+                                       .category(category)
+                                       .build());
+    }
+}
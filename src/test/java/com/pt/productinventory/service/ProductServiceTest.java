@@ -1,33 +1,60 @@
 package com.pt.productinventory.service;
 
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pt.productinventory.cache.CacheNames;
+import com.pt.productinventory.cache.RequestCoalescer;
+import com.pt.productinventory.cache.VersionedCache;
+import com.pt.productinventory.cache.VersionedValue;
+import com.pt.productinventory.error.exceptions.IllegalParameterException;
 import com.pt.productinventory.error.exceptions.ObjectNotFoundException;
+import com.pt.productinventory.mapper.ProductJsonMapper;
 import com.pt.productinventory.mapper.ProductMapper;
+import com.pt.productinventory.mapper.WindowMapper;
 import com.pt.productinventory.model.Category;
+import com.pt.productinventory.model.ETagged;
 import com.pt.productinventory.model.Product;
+import com.pt.productinventory.model.ProductFilter;
+import com.pt.productinventory.model.VersionStamp;
+import com.pt.productinventory.model.enums.ChangeEntityType;
+import com.pt.productinventory.model.enums.ChangeOperation;
 import com.pt.productinventory.model.enums.SortDirection;
+import com.pt.productinventory.model.dto.BatchResponseDto;
+import com.pt.productinventory.model.dto.ProductJson;
 import com.pt.productinventory.model.dto.ProductRequestDto;
 import com.pt.productinventory.model.dto.ProductResponseDto;
 import com.pt.productinventory.model.dto.ProductUpdateDto;
+import com.pt.productinventory.model.dto.WindowResponseDto;
 import com.pt.productinventory.repository.ProductRepository;
+import com.pt.productinventory.search.ProductNameIndex;
+import com.pt.productinventory.search.ProductSearchProperties;
 import com.pt.productinventory.service.impl.CategoryServiceImpl;
 import com.pt.productinventory.service.impl.ProductServiceImpl;
+import com.pt.productinventory.validator.SortFieldRegistry;
 import com.pt.productinventory.validator.ValidatorService;
+import jakarta.persistence.EntityManager;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
-import org.mockito.Mockito;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.ScrollPosition;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.domain.Specification;
 
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -44,7 +71,27 @@ public class ProductServiceTest {
     @Mock
     private ValidatorService validatorService;
     @Mock
+    private SortFieldRegistry sortFieldRegistry;
+    @Mock
     private ProductMapper productMapper;
+    @Mock
+    private ProductJsonMapper productJsonMapper;
+    @Mock
+    private WindowMapper windowMapper;
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+    @Mock
+    private EntityManager entityManager;
+    @Mock
+    private VersionedCache versionedCache;
+    @Mock
+    private ProductNameIndex productNameIndex;
+    @Mock
+    private ChangeEventService changeEventService;
+    @Mock
+    private RequestCoalescer requestCoalescer;
+    @Spy
+    private ProductSearchProperties productSearchProperties = new ProductSearchProperties();
 
     Category fruit, hardware;
     Product apple, pear, wirelessHeadphones;
@@ -152,6 +199,7 @@ public class ProductServiceTest {
         assertEquals(appleResponseDto, productResponseDto);
         verify(productRepository, times(1)).save(any(Product.class));
         verify(productMapper, times(1)).toProductResponseDto(any(Product.class));
+        verify(changeEventService).record(ChangeEntityType.PRODUCT, apple.getId(), ChangeOperation.CREATED);
     }
 
     @Test
@@ -161,11 +209,26 @@ public class ProductServiceTest {
         verify(productRepository).findAll();
     }
 
+    @Test
+    void should_ExportAllProductsAsNdjson() throws Exception {
+        when(productRepository.streamAll()).thenReturn(Stream.of(apple, pear));
+        when(productMapper.toProductResponseDto(apple)).thenReturn(appleResponseDto);
+        when(productMapper.toProductResponseDto(pear)).thenReturn(pearResponseDto);
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        productService.exportAll(outputStream);
+
+        String[] lines = outputStream.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, lines.length);
+        assertEquals(apple.getName(), objectMapper.readValue(lines[0], ProductResponseDto.class).getName());
+        assertEquals(pear.getName(), objectMapper.readValue(lines[1], ProductResponseDto.class).getName());
+        verify(productRepository).streamAll();
+    }
+
     @Test
     void should_FindAllPageableProducts() {
         String sortBy = "name";
 
-        Assertions.assertDoesNotThrow(() -> validatorService.validateClassField(Mockito.any(), Mockito.eq(sortBy)));
         int pageNum = 0;
         int pageSize = 10;
         SortDirection sortDirection = SortDirection.ASC;
@@ -177,28 +240,110 @@ public class ProductServiceTest {
         List<Product> productList = List.of(apple);
         Page<Product> productPage = new PageImpl<>(productList, pageRequest, productList.size());
 
+        when(sortFieldRegistry.resolveSort(Product.class, sortBy, sortDirection)).thenReturn(Sort.by(sortBy).ascending());
         when(productRepository.findAll(any(Specification.class), eq(pageRequest))).thenReturn(productPage);
-        when(productMapper.toProductResponseDto(any(Product.class))).thenReturn(appleResponseDto);
+        when(productJsonMapper.toProductJson(any(Product.class))).thenReturn(new ProductJson(new SerializedString("{}")));
+        when(requestCoalescer.execute(eq("productPage"), any(), any()))
+                .thenAnswer(invocation -> invocation.<Supplier<?>>getArgument(2).get());
 
-        Page<ProductResponseDto> result = productService.findAllPageable(pageNum, pageSize, sortBy, sortDirection, name, minPrice, maxPrice);
+        Page<ProductJson> result = productService.findAllPageable(pageNum, pageSize, sortBy, sortDirection, name, minPrice, maxPrice);
 
         assertNotNull(result);
         assertEquals(1, result.getTotalElements());
-        verify(validatorService).validateClassField(Product.class, sortBy);
+        verify(sortFieldRegistry).resolveSort(Product.class, sortBy, sortDirection);
         verify(productRepository).findAll(any(Specification.class), eq(pageRequest));
-        verify(productMapper, times(1)).toProductResponseDto(any(Product.class));
+        verify(productJsonMapper, times(1)).toProductJson(any(Product.class));
+    }
+
+    @Test
+    void should_ThrowIllegalParameter_SearchProducts() {
+        ProductFilter productFilter = ProductFilter.builder().categoryIds(List.of(1L)).build();
+
+        assertThrows(IllegalParameterException.class, () ->
+                productService.search(productFilter, 0, 10, List.of("name"), List.of(SortDirection.ASC), 0.0));
+        verifyNoInteractions(entityManager);
+    }
+
+    @Test
+    void should_FindAllScrollableProducts() {
+        String sortBy = "name";
+        Window<Product> productWindow = Window.from(List.of(apple), index -> ScrollPosition.offset(), false);
+        WindowResponseDto<ProductResponseDto> windowResponseDto = WindowResponseDto.<ProductResponseDto>builder()
+                .content(List.of(appleResponseDto))
+                .build();
+
+        when(windowMapper.toScrollPosition(isNull(), eq(Product.class), any())).thenReturn(ScrollPosition.keyset());
+        when(productRepository.findBy(any(Specification.class), any())).thenReturn(productWindow);
+        when(windowMapper.<Product, ProductResponseDto>toWindowResponseDto(eq(productWindow), any(), isNull(), any()))
+                .thenReturn(windowResponseDto);
+
+        WindowResponseDto<ProductResponseDto> result =
+                productService.findAllScrollable(10, sortBy, SortDirection.ASC, "apple", null, null, null, false);
+
+        assertEquals(1, result.getContent().size());
+        verify(sortFieldRegistry).resolveKeysetSort(Product.class, sortBy, SortDirection.ASC);
+        verify(productRepository, never()).count(any(Specification.class));
     }
 
     @Test
-    void should_FindByIdResponseDtoProduct() {
+    void should_FindByIdWithETagProduct() {
+        when(versionedCache.getEntry(eq(CacheNames.PRODUCTS), eq(0L), any()))
+                .thenAnswer(invocation -> invocation.<Supplier<VersionedValue<?>>>getArgument(2).get());
+        when(requestCoalescer.execute(eq("product"), eq(0L), any()))
+                .thenAnswer(invocation -> invocation.<Supplier<?>>getArgument(2).get());
         when(productRepository.findById(0L)).thenReturn(Optional.of(apple));
         when(productMapper.toProductResponseDto(apple)).thenReturn(appleResponseDto);
 
-        ProductResponseDto result = productService.findByIdResponseDto(0L);
+        ETagged<ProductResponseDto> result = productService.findByIdWithETag(0L);
 
-        assertNotNull(result);
+        assertEquals(appleResponseDto, result.body());
+        assertEquals("0-0", result.eTag());
         verify(productRepository).findById(0L);
-        verify(productMapper).toProductResponseDto(apple);
+        verify(productRepository, never()).findVersionStampById(any());
+    }
+
+    @Test
+    void should_FindAllByIdsProducts() {
+        when(versionedCache.getIfPresent(CacheNames.PRODUCTS, 1L)).thenReturn(pearResponseDto);
+        when(versionedCache.getIfPresent(CacheNames.PRODUCTS, 0L)).thenReturn(null);
+        when(versionedCache.getIfPresent(CacheNames.PRODUCTS, 7L)).thenReturn(null);
+        when(productRepository.findWithCategoryByIdIn(List.of(0L, 7L))).thenReturn(List.of(apple));
+        when(productMapper.toProductResponseDto(apple)).thenReturn(appleResponseDto);
+
+        BatchResponseDto<ProductResponseDto> result = productService.findAllByIds(List.of(1L, 0L, 7L, 1L));
+
+        assertEquals(List.of(pearResponseDto, appleResponseDto), result.getContent());
+        assertEquals(List.of(7L), result.getMissingIds());
+        verify(versionedCache).put(eq(CacheNames.PRODUCTS), eq(0L), any(VersionedValue.class));
+        verify(productRepository, never()).findById(any());
+    }
+
+    @Test
+    void should_FindETagProduct() {
+        when(productRepository.findVersionStampById(1L)).thenReturn(Optional.of(new VersionStamp(3L, 1L)));
+
+        String result = productService.findETag(1L);
+
+        assertEquals("3-1", result);
+        verify(productRepository, never()).findById(1L);
+    }
+
+    @Test
+    void should_UseCachedVersions_FindETagProduct() {
+        when(versionedCache.getEntryIfPresent(CacheNames.PRODUCTS, 1L))
+                .thenReturn(new VersionedValue<>(3L, 1L, pearResponseDto));
+
+        String result = productService.findETag(1L);
+
+        assertEquals("3-1", result);
+        verify(productRepository, never()).findVersionStampById(any());
+    }
+
+    @Test
+    void should_ThrowNotFound_FindETagProduct() {
+        when(productRepository.findVersionStampById(4L)).thenReturn(Optional.empty());
+
+        assertThrows(ObjectNotFoundException.class, () -> productService.findETag(4L));
     }
 
     @Test
@@ -247,6 +392,7 @@ public class ProductServiceTest {
         Assertions.assertEquals(appleUpdateDto.getPrice(), result.getPrice());
         Assertions.assertEquals(appleUpdateDto.getDescription(), result.getDescription());
         verify(productRepository).save(any(Product.class));
+        verify(versionedCache).evict(eq(CacheNames.PRODUCTS), eq(0L), any());
     }
 
     @Test
@@ -256,6 +402,7 @@ public class ProductServiceTest {
         productService.deleteById(1L);
 
         verify(productRepository).deleteById(1L);
+        verify(changeEventService).record(ChangeEntityType.PRODUCT, 1L, ChangeOperation.DELETED);
     }
 
     @Test
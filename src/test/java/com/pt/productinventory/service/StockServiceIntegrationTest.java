@@ -0,0 +1,134 @@
+package com.pt.productinventory.service;
+
+import com.pt.productinventory.cache.CacheNames;
+import com.pt.productinventory.cache.VersionedCache;
+import com.pt.productinventory.cache.VersionedValue;
+import com.pt.productinventory.error.exceptions.InsufficientStockException;
+import com.pt.productinventory.error.exceptions.ObjectNotFoundException;
+import com.pt.productinventory.model.Product;
+import com.pt.productinventory.model.dto.ProductResponseDto;
+import com.pt.productinventory.model.dto.StockResponseDto;
+import com.pt.productinventory.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+public class StockServiceIntegrationTest {
+
+    private static final int THREADS = 8;
+    private static final int STOCK = 20;
+
+    @Autowired
+    private StockService stockService;
+    @Autowired
+    private ProductService productService;
+    @Autowired
+    private ProductRepository productRepository;
+    @Autowired
+    private VersionedCache versionedCache;
+    @Autowired
+    private CacheManager cacheManager;
+
+    Product pear;
+
+    @BeforeEach
+    void initData() {
+        pear = productRepository.save(Product.builder()
+                                              .name("stock-pear-" + UUID.randomUUID())
+                                              .description("Fresh pear")
+                                              .price(2.5)
+                                              .quantity(STOCK)
+                                              .build());
+    }
+
+    @Test
+    void should_NeverGoBelowZero_ConcurrentReservations() throws Exception {
+        AtomicInteger reserved = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < THREADS; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (int attempt = 0; attempt < STOCK; attempt++) {
+                        try {
+                            stockService.reserve(pear.getId(), 1);
+                            reserved.incrementAndGet();
+                        } catch (InsufficientStockException e) {
+                            rejected.incrementAndGet();
+                        }
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(STOCK, reserved.get());
+        assertEquals(THREADS * STOCK - STOCK, rejected.get());
+        Product reloaded = productRepository.findById(pear.getId()).orElseThrow();
+        assertEquals(0, reloaded.getQuantity());
+        // every successful reservation bumped the version once, the rejected ones didn't write
+        assertEquals(pear.getVersion() + STOCK, reloaded.getVersion());
+    }
+
+    @Test
+    void should_ThrowInsufficientStock_ReserveMoreThanAvailable() {
+        assertThrows(InsufficientStockException.class, () -> stockService.reserve(pear.getId(), STOCK + 1));
+        assertThrows(InsufficientStockException.class, () -> stockService.adjust(pear.getId(), -STOCK - 1));
+
+        assertEquals(STOCK, productRepository.findById(pear.getId()).orElseThrow().getQuantity());
+    }
+
+    @Test
+    void should_ThrowNotFound_UnknownProduct() {
+        Long unknownId = pear.getId() + 1_000_000;
+
+        assertThrows(ObjectNotFoundException.class, () -> stockService.reserve(unknownId, 1));
+        assertThrows(ObjectNotFoundException.class, () -> stockService.release(unknownId, 1));
+    }
+
+    @Test
+    void should_LeaveTombstoneWithWrittenVersion_Reserve() {
+        ProductResponseDto before = productService.findByIdWithETag(pear.getId()).body();
+        assertEquals(STOCK, before.getQuantity());
+
+        StockResponseDto stockResponseDto = stockService.reserve(pear.getId(), 5);
+
+        assertEquals(STOCK - 5, stockResponseDto.getQuantity());
+        Cache cache = Objects.requireNonNull(cacheManager.getCache(CacheNames.PRODUCTS));
+        VersionedValue<?> tombstone = cache.get(pear.getId(), VersionedValue.class);
+        assertNotNull(tombstone);
+        assertTrue(tombstone.isTombstone());
+        assertEquals(pear.getVersion() + 1, tombstone.version());
+
+        // a read that loaded the row before the reservation can't put the old quantity back
+        versionedCache.put(CacheNames.PRODUCTS, pear.getId(), new VersionedValue<>(pear.getVersion(), before));
+        assertNull(versionedCache.getEntryIfPresent(CacheNames.PRODUCTS, pear.getId()));
+        assertEquals(STOCK - 5, productService.findByIdWithETag(pear.getId()).body().getQuantity());
+    }
+}
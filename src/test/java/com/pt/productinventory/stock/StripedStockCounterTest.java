@@ -0,0 +1,214 @@
+package com.pt.productinventory.stock;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class StripedStockCounterTest {
+
+    private static final int THREADS = 8;
+
+    @Test
+    void should_RejectReservationBelowZero() {
+        StripedStockCounter counter = new StripedStockCounter(5, 4);
+
+        assertFalse(counter.tryReserve(6));
+        assertTrue(counter.tryReserve(5));
+        assertFalse(counter.tryReserve(1));
+        assertEquals(0, counter.available());
+    }
+
+    @Test
+    void should_ReserveAcrossCells_WhenNoSingleCellHoldsEnough() {
+        StripedStockCounter counter = new StripedStockCounter(2, 4);
+        counter.release(3);
+
+        assertTrue(counter.tryReserve(5));
+        assertEquals(0, counter.available());
+    }
+
+    @Test
+    void should_NeverOversell_ConcurrentReservations() throws Exception {
+        StripedStockCounter counter = new StripedStockCounter(10_000, 4);
+        AtomicLong reserved = new AtomicLong();
+
+        runConcurrently(() -> {
+            while (counter.tryReserve(3)) {
+                reserved.addAndGet(3);
+            }
+        });
+
+        assertEquals(9_999, reserved.get());
+        assertEquals(1, counter.available());
+        assertEquals(-9_999, counter.drainPendingDelta());
+    }
+
+    @Test
+    void should_KeepTotal_ConcurrentReserveAndRelease() throws Exception {
+        StripedStockCounter counter = new StripedStockCounter(100, 4);
+        AtomicLong drained = new AtomicLong();
+
+        runConcurrently(() -> {
+            for (int i = 0; i < 10_000; i++) {
+                if (counter.tryReserve(2)) {
+                    counter.release(2);
+                }
+                if (i % 1_000 == 0) {
+                    drained.addAndGet(counter.drainPendingDelta());
+                }
+            }
+        });
+        drained.addAndGet(counter.drainPendingDelta());
+
+        assertEquals(100, counter.available());
+        assertEquals(0, drained.get());
+    }
+
+    @Test
+    void should_DrainEveryChangeOnce() {
+        StripedStockCounter counter = new StripedStockCounter(10, 4);
+
+        assertTrue(counter.tryReserve(3));
+        counter.release(1);
+
+        assertEquals(-2, counter.drainPendingDelta());
+        assertEquals(0, counter.drainPendingDelta());
+        assertEquals(8, counter.available());
+    }
+
+    @Test
+    void should_DrainAgain_RestoredPendingDelta() {
+        StripedStockCounter counter = new StripedStockCounter(10, 4);
+        assertTrue(counter.tryReserve(3));
+
+        long delta = counter.drainPendingDelta();
+        counter.restorePendingDelta(delta);
+        assertTrue(counter.tryReserve(1));
+
+        assertEquals(-4, counter.drainPendingDelta());
+        assertEquals(6, counter.available());
+    }
+
+    @Test
+    void should_KeepPendingDelta_Rebase() {
+        StripedStockCounter counter = new StripedStockCounter(10, 4);
+        assertTrue(counter.tryReserve(4));
+
+        counter.rebase(20);
+
+        assertEquals(16, counter.available());
+        assertEquals(-4, counter.drainPendingDelta());
+    }
+
+    @Test
+    void should_BlockReservations_RebaseBelowPendingDelta() {
+        StripedStockCounter counter = new StripedStockCounter(10, 4);
+        assertTrue(counter.tryReserve(8));
+
+        counter.rebase(5);
+
+        assertEquals(-3, counter.available());
+        assertFalse(counter.tryReserve(1));
+        counter.release(2);
+        assertFalse(counter.tryReserve(1));
+        counter.release(3);
+        assertTrue(counter.tryReserve(2));
+        assertEquals(0, counter.available());
+        assertEquals(-5, counter.drainPendingDelta());
+    }
+
+    @Test
+    void should_RejectRelease_AboveLimit() {
+        StripedStockCounter counter = new StripedStockCounter(Integer.MAX_VALUE - 5, 4);
+
+        assertFalse(counter.tryRelease(6, Integer.MAX_VALUE));
+        assertFalse(counter.tryRelease(Integer.MAX_VALUE, Integer.MAX_VALUE));
+        assertTrue(counter.tryRelease(5, Integer.MAX_VALUE));
+        assertEquals(Integer.MAX_VALUE, counter.available());
+        assertEquals(5, counter.drainPendingDelta());
+    }
+
+    @Test
+    void should_NotReserveReleasedStock_WhileRebaseShortfallIsOpen() throws Exception {
+        StripedStockCounter counter = new StripedStockCounter(0, 4);
+        AtomicLong reserved = new AtomicLong();
+        AtomicBoolean stopped = new AtomicBoolean();
+        int rounds = 1_000;
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<?>> reservers = new ArrayList<>();
+            for (int i = 0; i < THREADS; i++) {
+                reservers.add(executor.submit(() -> {
+                    while (!stopped.get()) {
+                        if (counter.tryReserve(1)) {
+                            reserved.incrementAndGet();
+                        } else {
+                            Thread.yield();
+                        }
+                    }
+                }));
+            }
+
+            for (int round = 0; round < rounds; round++) {
+                // a product update adds 10 units, the reservers sell them
+                counter.rebase(10);
+                awaitSoldOut(counter);
+                // another update takes them away again, the units sold since are now a shortfall
+                counter.rebase(0);
+                for (int i = 0; i < 10; i++) {
+                    counter.release(1);
+                }
+                awaitSoldOut(counter);
+                // released units only pay off the shortfall, so at most 10 units a round were there to sell
+                assertTrue(reserved.get() <= 10L * (round + 1), "oversold in round " + round);
+            }
+
+            stopped.set(true);
+            for (Future<?> reserver : reservers) {
+                reserver.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertTrue(counter.available() >= 0);
+        assertEquals(10L * rounds, reserved.get() + counter.available());
+    }
+
+    private static void awaitSoldOut(StripedStockCounter counter) {
+        while (counter.available() > 0) {
+            Thread.yield();
+        }
+    }
+
+    private static void runConcurrently(Runnable task) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < THREADS; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    task.run();
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}